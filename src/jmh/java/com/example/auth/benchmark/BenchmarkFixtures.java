@@ -0,0 +1,34 @@
+package com.example.auth.benchmark;
+
+import com.example.auth.security.JwtKeyManager;
+import com.example.auth.security.JwtTokenProvider;
+
+/**
+ * benchmark에서 공통으로 사용하는 설정값(application.yaml 기본값과 같음)
+ * */
+final class BenchmarkFixtures {
+    static final String SECRET = "mySecretKeyForJWTTokenGenerationThisKeyMustBeLongAndVeryStrongHS512Algorithm";
+    static final long ACCESS_TOKEN_EXPIRATION = 600_000L;
+    static final long REFRESH_TOKEN_EXPIRATION = 604_800_000L;
+
+    static final String EMAIL = "bench@example.com";
+    static final long USER_ID = 1L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtTokenProvider tokenProvider(JwtKeyManager.Algorithm algorithm) {
+        JwtKeyManager keyManager = new JwtKeyManager(
+                RepositoryStubs.signingKeys(),
+                SECRET,
+                algorithm,
+                604_800_000L,
+                600_000L,
+                REFRESH_TOKEN_EXPIRATION,
+                60_000L
+        );
+        keyManager.init();
+
+        return new JwtTokenProvider(SECRET, ACCESS_TOKEN_EXPIRATION, REFRESH_TOKEN_EXPIRATION, keyManager);
+    }
+}
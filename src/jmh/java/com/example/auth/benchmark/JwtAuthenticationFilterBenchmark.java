@@ -0,0 +1,90 @@
+package com.example.auth.benchmark;
+
+import com.example.auth.entity.User;
+import com.example.auth.metrics.AuthMetrics;
+import com.example.auth.security.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Bearer 토큰이 있는 요청 하나가 JwtAuthenticationFilter를 통과하는 비용 측정
+ * 사용자 조회는 메모리 repository로 대체한다(DB 왕복 시간은 포함되지 않음).
+ * */
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean tokenCacheEnabled;
+
+    @Param({"database", "claims"})
+    public String authMode;
+
+    // 인증이 필요한 route / 필터를 건너뛰는 공개 route
+    @Param({"/me", "/api/health"})
+    public String path;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider jwtTokenProvider = BenchmarkFixtures.tokenProvider(JwtKeyManager.Algorithm.HMAC);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        User user = User.builder()
+                .id(BenchmarkFixtures.USER_ID)
+                .email(BenchmarkFixtures.EMAIL)
+                .nickName("bench")
+                .role(User.Role.ROLE_USER)
+                .isActive(true)
+                .build();
+
+        VerifiedTokenCache verifiedTokenCache =
+                new VerifiedTokenCache(jwtTokenProvider, meterRegistry, tokenCacheEnabled, 10_000L);
+        UserStatusCache userStatusCache =
+                new UserStatusCache(RepositoryStubs.users(user), meterRegistry, 30_000L, 10_000L);
+        TokenVersionRegistry tokenVersionRegistry =
+                new TokenVersionRegistry(BenchmarkFixtures.ACCESS_TOKEN_EXPIRATION, 10_000L);
+
+        // 다른 토큰 1,000개가 폐기된 상태(Bloom filter 확인 비용 포함)
+        AccessTokenRevocationList revocationList = new AccessTokenRevocationList(
+                meterRegistry, BenchmarkFixtures.ACCESS_TOKEN_EXPIRATION, 60_000L, 1024);
+        Instant expiresAt = Instant.now().plusMillis(BenchmarkFixtures.ACCESS_TOKEN_EXPIRATION);
+        for (int i = 0; i < 1_000; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+
+        filter = new JwtAuthenticationFilter(
+                verifiedTokenCache, userStatusCache, tokenVersionRegistry, revocationList, new AuthMetrics(meterRegistry));
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+        ReflectionTestUtils.setField(filter, "claimsMaxStaleness", 3_600_000L);
+
+        authorizationHeader = "Bearer " + jwtTokenProvider.generateAccessToken(
+                BenchmarkFixtures.EMAIL, BenchmarkFixtures.USER_ID, User.Role.ROLE_USER.name(), 0);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.auth.benchmark;
+
+import com.example.auth.security.JwtKeyManager;
+import com.example.auth.security.JwtTokenProvider;
+import com.example.auth.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * access / refresh token 발급과 검증 비용 측정
+ * */
+@State(Scope.Benchmark)
+public class JwtTokenBenchmark {
+
+    @Param({"HMAC", "ES256", "EdDSA"})
+    public JwtKeyManager.Algorithm algorithm;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = BenchmarkFixtures.tokenProvider(algorithm);
+        accessToken = generateAccessToken();
+        refreshToken = generateRefreshToken();
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtTokenProvider.generateAccessToken(BenchmarkFixtures.EMAIL, BenchmarkFixtures.USER_ID, "ROLE_USER", 0);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtTokenProvider.generateRefreshToken(BenchmarkFixtures.EMAIL);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyAccessToken() {
+        return jwtTokenProvider.verify(accessToken);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyRefreshToken() {
+        return jwtTokenProvider.verify(refreshToken);
+    }
+}
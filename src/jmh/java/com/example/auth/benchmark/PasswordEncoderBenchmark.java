@@ -0,0 +1,50 @@
+package com.example.auth.benchmark;
+
+import com.example.auth.config.PasswordHashingProperties;
+import com.example.auth.security.CalibratedPasswordEncoders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인시 비밀번호 검증(PasswordEncoder.matches) 비용 측정
+ * SecurityConfig와 같이 CalibratedPasswordEncoders로 만든 encoder를 사용하므로,
+ * 설정된 cost(bcrypt strength, argon2 iterations, 기본값은 application.yaml과 같음)가 그대로 반영된다.
+ * 다른 설정은 -p algorithm=argon2 -p cost=12 처럼 바꿔서 측정한다(cost는 bcrypt strength 또는 argon2 iterations).
+ * */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PasswordEncoderBenchmark {
+    private static final String RAW_PASSWORD = "password1234!";
+
+    @Param({CalibratedPasswordEncoders.BCRYPT, CalibratedPasswordEncoders.ARGON2})
+    public String algorithm;
+
+    @Param({"0"})
+    public int cost;    // 0이면 설정 기본값
+
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setCalibrate(false);
+        if (cost > 0) {
+            properties.getBcrypt().setStrength(cost);
+            properties.getArgon2().setIterations(cost);
+        }
+
+        passwordEncoder = CalibratedPasswordEncoders.create(properties);
+        encodedPassword = passwordEncoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(RAW_PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.auth.benchmark;
+
+import com.example.auth.security.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 속도 제한기의 허용/거절 판단 비용(거절된 요청은 1us보다 훨씬 짧아야 함)
+ * */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+    private static final int KEYS = 10_000;
+
+    private RateLimiter blocked;
+    private RateLimiter open;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        blocked = new RateLimiter(1, 1, 100_000);
+        open = new RateLimiter(60_000_000L, 1_000_000L, 100_000);   // 사실상 제한 없음
+        addresses = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+            blocked.tryAcquire(addresses[i]);   // bucket을 비워둠
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long rejected(Cursor cursor) {
+        return blocked.tryAcquire(addresses[cursor.next++ % KEYS]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long allowed(Cursor cursor) {
+        return open.tryAcquire(addresses[cursor.next++ % KEYS]);
+    }
+}
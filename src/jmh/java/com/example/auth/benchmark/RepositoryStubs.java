@@ -0,0 +1,69 @@
+package com.example.auth.benchmark;
+
+import com.example.auth.entity.JwtSigningKey;
+import com.example.auth.entity.User;
+import com.example.auth.repository.JwtSigningKeyRepository;
+import com.example.auth.repository.UserRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * benchmark에서 DB 대신 사용하는 메모리 repository
+ * 측정에 필요한 메소드만 구현하고 나머지는 UnsupportedOperationException을 던진다.
+ * */
+final class RepositoryStubs {
+    private RepositoryStubs() {
+    }
+
+    /**
+     * 항상 같은 사용자를 돌려주는 UserRepository
+     * */
+    static UserRepository users(User user) {
+        return stub(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById", "findByEmail" -> Optional.of(user);
+            default -> unsupported(method.getName());
+        });
+    }
+
+    /**
+     * 서명키를 메모리에 보관하는 JwtSigningKeyRepository
+     * */
+    @SuppressWarnings("unchecked")
+    static JwtSigningKeyRepository signingKeys() {
+        List<JwtSigningKey> keys = new ArrayList<>();
+        return stub(JwtSigningKeyRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findUsableKeys" -> keys.stream()
+                    .sorted(Comparator.comparing(JwtSigningKey::getActivatesAt).reversed())
+                    .toList();
+            case "findFirstByOrderByCreatedAtAsc" -> keys.stream()
+                    .min(Comparator.comparing(JwtSigningKey::getCreatedAt));
+            case "saveAll" -> {
+                for (JwtSigningKey key : (Iterable<JwtSigningKey>) args[0]) {
+                    keys.removeIf(k -> k.getKid().equals(key.getKid()));
+                    keys.add(key);
+                }
+                yield List.copyOf(keys);
+            }
+            default -> unsupported(method.getName());
+        });
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withObjectMethods = (proxy, method, args) -> switch (method.getName()) {
+            case "toString" -> type.getSimpleName() + "Stub";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> handler.invoke(proxy, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, withObjectMethods));
+    }
+
+    private static Object unsupported(String name) {
+        throw new UnsupportedOperationException(name);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.auth.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * platform thread pool(Tomcat 기본 max 200)과 virtual thread의 동시 처리량/지연시간 비교
+ *
+ * 로그인/카카오 callback 요청 하나를 "짧은 CPU 작업 + blocking I/O(DB, 외부 API)"로 흉내내고,
+ * concurrency개의 요청을 동시에 넣은 뒤 모두 끝날때까지의 시간을 잰다.
+ * (sample 모드의 batch 시간 분포 = 가장 늦게 끝난 요청 기준의 tail latency)
+ *
+ * lock=synchronized는 blocking I/O를 synchronized 안에서 수행하는 경우(예전 JDBC driver)로,
+ * Java 21에서는 virtual thread가 carrier thread를 pinning하므로 virtual thread의 이점이 사라지는 것을 보여준다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class ThreadModelBenchmark {
+    private static final int PLATFORM_POOL_SIZE = 200;     // server.tomcat.threads.max 기본값
+    private static final int LOCK_STRIPES = 64;             // lock 개수(connection마다 lock을 가진 driver 흉내)
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "2000"})
+    public int concurrency;
+
+    @Param({"20"})
+    public long ioMillis;
+
+    @Param({"none", "reentrant", "synchronized"})
+    public String lock;
+
+    private ExecutorService executor;
+    private final Object[] monitors = new Object[LOCK_STRIPES];
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void requests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int stripe = i % LOCK_STRIPES;
+            executor.execute(() -> {
+                try {
+                    handle(stripe);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handle(int stripe) {
+        cpuWork();
+        switch (lock) {
+            case "reentrant" -> {
+                ReentrantLock l = locks[stripe];
+                l.lock();
+                try {
+                    blockingIo();
+                } finally {
+                    l.unlock();
+                }
+            }
+            case "synchronized" -> {
+                synchronized (monitors[stripe]) {
+                    blockingIo();
+                }
+            }
+            default -> blockingIo();
+        }
+    }
+
+    // DB, 외부 API 응답 대기를 흉내냄
+    private void blockingIo() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ioMillis));
+    }
+
+    // 요청 파싱, JSON 직렬화 정도의 짧은 CPU 작업
+    private static void cpuWork() {
+        Blackhole.consumeCPU(10_000);
+    }
+}
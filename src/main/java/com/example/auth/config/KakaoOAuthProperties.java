@@ -32,4 +32,10 @@ public class KakaoOAuthProperties {
 
     // 카카오 사용자 정보 조회 URL
     private String userInfoUri;
+
+    // 카카오 API 연결 timeout(ms)
+    private long connectTimeout = 3000;
+
+    // 카카오 API 응답 timeout(ms)
+    private long readTimeout = 5000;
 }
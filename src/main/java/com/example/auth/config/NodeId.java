@@ -0,0 +1,28 @@
+package com.example.auth.config;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * 이 서버(프로세스)를 구분하는 id(host 이름 + 임의값)
+ * scheduler lease의 소유자, invalidation event의 발행 서버 표시에 사용한다.
+ * */
+public final class NodeId {
+    private static final String VALUE = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private NodeId() {
+    }
+
+    public static String value() {
+        return VALUE;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 비밀번호 hash 설정
+ * application.yaml의 auth.password-hashing 설정 바인딩(binding)
+ * */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "auth.password-hashing")
+public class PasswordHashingProperties {
+
+    // 새 비밀번호에 사용할 알고리즘(bcrypt, argon2)
+    private String algorithm = "bcrypt";
+
+    // 비밀번호 hash 1회에 목표로 하는 시간(ms), calibrate가 true면 이 시간에 맞는 권장 cost를 시작시 로그로 남김
+    private long targetLatency = 250;
+
+    // true면 시작시 서버 성능을 측정해서 권장 cost를 로그로 남김(hash에는 설정된 cost만 사용)
+    private boolean calibrate = true;
+
+    // 동시에 계산할 스레드 수(0이면 CPU core 수)
+    private int threads = 0;
+
+    // 대기할 수 있는 요청 수(넘으면 503)
+    private int queueCapacity = 64;
+
+    // 대기 + 계산 최대 시간(ms, 넘으면 503)
+    private long maxWait = 2000;
+
+    // 503 응답의 Retry-After(초)
+    private long retryAfter = 2;
+
+    private Bcrypt bcrypt = new Bcrypt();
+
+    private Argon2 argon2 = new Argon2();
+
+    @Getter
+    @Setter
+    public static class Bcrypt {
+        // hash에 사용하는 cost(log2 rounds), 모든 서버가 같은 값을 사용해야 함
+        private int strength = 10;
+        // 권장 cost 측정 상한
+        private int maxStrength = 14;
+    }
+
+    @Getter
+    @Setter
+    public static class Argon2 {
+        // 메모리 사용량(KiB), 기본값은 OWASP 권장값(19MiB)
+        private int memory = 19456;
+        private int parallelism = 1;
+        // hash에 사용하는 반복 횟수, 모든 서버가 같은 값을 사용해야 함
+        private int iterations = 2;
+        // 권장 cost 측정 상한
+        private int maxIterations = 10;
+    }
+}
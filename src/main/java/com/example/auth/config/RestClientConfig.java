@@ -0,0 +1,44 @@
+package com.example.auth.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * 외부 API(카카오) 호출용 RestClient 설정
+ *
+ * JDK HttpClient를 사용한다. spring.threads.virtual.enabled=true이면 HttpClient의 내부 작업(응답 처리)도
+ * virtual thread에서 실행되므로, 요청 스레드(virtual thread)가 응답을 기다리는 동안 carrier thread를 점유하지 않는다.
+ * */
+@Configuration
+@RequiredArgsConstructor
+public class RestClientConfig {
+    private final KakaoOAuthProperties kakaoOAuthProperties;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Bean
+    public RestClient kakaoRestClient() {
+        HttpClient.Builder httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(kakaoOAuthProperties.getConnectTimeout()))
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (virtualThreadsEnabled) {
+            httpClient.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient.build());
+        requestFactory.setReadTimeout(Duration.ofMillis(kakaoOAuthProperties.getReadTimeout()));
+
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
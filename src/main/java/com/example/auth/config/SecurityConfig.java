@@ -1,8 +1,14 @@
 package com.example.auth.config;
 
+import com.example.auth.entity.User;
+import com.example.auth.security.BoundedPasswordEncoder;
+import com.example.auth.security.CalibratedPasswordEncoders;
 import com.example.auth.security.CustomLogoutHandler;
 import com.example.auth.security.CustomSuccessLogoutHandler;
 import com.example.auth.security.JwtAuthenticationFilter;
+import com.example.auth.security.LoginRateLimitFilter;
+import com.example.auth.security.PublicRoutes;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -13,7 +19,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -24,6 +29,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
     private final CustomLogoutHandler customLogoutHandler;
     private final CustomSuccessLogoutHandler customSuccessLogoutHandler;
 
@@ -39,9 +45,21 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * 설정된 cost의 bcrypt/argon2 encoder(CalibratedPasswordEncoders, 시작시 권장 cost를 측정해서 로그로 남김)를 사용한다.
+     * 비밀번호 hash/검증은 core 수로 제한된 전용 pool에서 실행하고,
+     * 로그인이 몰려 큐가 가득 차거나 max-wait를 넘기면 503(Retry-After)으로 바로 거절된다.
+     * */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                CalibratedPasswordEncoders.create(properties),
+                properties.getThreads(),
+                properties.getQueueCapacity(),
+                properties.getMaxWait(),
+                properties.getRetryAfter(),
+                meterRegistry
+        );
     }
 
     @Bean
@@ -60,8 +78,8 @@ public class SecurityConfig {
                 })
                 .authorizeHttpRequests(auth ->
                         auth
-                                .requestMatchers("/api/health", "/api/signup", "/api/login", "/api/refresh", "/api/loginex").permitAll()  // 여기에 적힌 route를 통과시킴
-                                .requestMatchers("/api/oauth/kakao/**").permitAll()
+                                .requestMatchers(PublicRoutes.matcher()).permitAll()  // 여기에 적힌 route를 통과시킴(JwtAuthenticationFilter도 건너뜀)
+                                .requestMatchers("/api/admin/**").hasAuthority(User.Role.ROLE_ADMIN.name())  // 관리자 전용
                                 .anyRequest().authenticated()   // 그 외는 다 인증 필요
                 )
                 .exceptionHandling(ex ->
@@ -81,7 +99,9 @@ public class SecurityConfig {
                 )
 
                 // UsernamePasswordAuthenticationFilter 보다 앞에 jwtAuthenticationFilter 넣어라
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // 로그인/토큰 재발급 속도 제한은 가장 먼저 확인(거절된 요청은 DB, 비밀번호 검증을 하지 않음)
+                .addFilterBefore(loginRateLimitFilter, JwtAuthenticationFilter.class);
 
 
         return http.build();
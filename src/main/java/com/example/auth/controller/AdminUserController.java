@@ -0,0 +1,38 @@
+package com.example.auth.controller;
+
+import com.example.auth.dto.ApiResponse;
+import com.example.auth.dto.RequestChangeRole;
+import com.example.auth.dto.RequestChangeStatus;
+import com.example.auth.service.AdminUserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 관리자 전용 사용자 관리 라우트(ROLE_ADMIN만 접근 가능, SecurityConfig 참고)
+ * */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+    private final AdminUserService adminUserService;
+
+    @PatchMapping("/{userId}/role")
+    public ResponseEntity<ApiResponse<Void>> changeRole(
+            @PathVariable Long userId,
+            @Valid @RequestBody RequestChangeRole request
+    ) {
+        adminUserService.changeRole(userId, request.getRole());
+        return ResponseEntity.ok(ApiResponse.success("사용자 권한 변경 완료"));
+    }
+
+    @PatchMapping("/{userId}/status")
+    public ResponseEntity<ApiResponse<Void>> changeStatus(
+            @PathVariable Long userId,
+            @Valid @RequestBody RequestChangeStatus request
+    ) {
+        adminUserService.changeStatus(userId, request.getActive());
+        return ResponseEntity.ok(ApiResponse.success("사용자 계정 상태 변경 완료"));
+    }
+}
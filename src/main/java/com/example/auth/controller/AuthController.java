@@ -70,11 +70,7 @@ public class AuthController {
 
         if (!(response.getAccessToken().isEmpty())) {
             // 쿠키 생성
-            Cookie refreshTokenCookie = new Cookie("refreshToken", response.getRefreshToken());
-            refreshTokenCookie.setHttpOnly(true);   // XSS 공격에 대응, JS에서 읽을 수 없음
-            refreshTokenCookie.setSecure(false);    // 개발기간만 false, https를 적용하면 true
-            refreshTokenCookie.setPath("/");    // 모든 경로에 쿠키 전송
-            httpResponse.addCookie( refreshTokenCookie );
+            addRefreshTokenCookie(httpResponse, response.getRefreshToken());
 
             // LoginResponse 인스턴스에 있는 refresh Token 정보를 삭제한다.
             response.setRefreshToken(null);
@@ -89,6 +85,17 @@ public class AuthController {
         }
     }
 
+    /**
+     * refresh token을 쿠키로 내려준다(로그인, 재발급)
+     * */
+    private void addRefreshTokenCookie(HttpServletResponse httpResponse, String refreshToken) {
+        Cookie refreshTokenCookie = new Cookie("refreshToken", refreshToken);
+        refreshTokenCookie.setHttpOnly(true);   // XSS 공격에 대응, JS에서 읽을 수 없음
+        refreshTokenCookie.setSecure(false);    // 개발기간만 false, https를 적용하면 true
+        refreshTokenCookie.setPath("/");    // 모든 경로에 쿠키 전송
+        httpResponse.addCookie( refreshTokenCookie );
+    }
+
     public String extractRefreshTokenFromBody(TokenRefreshRequest body) {
         if (body == null || body.getRefreshToken() == null || body.getRefreshToken().isBlank())
             return null;
@@ -121,6 +128,7 @@ public class AuthController {
     @SuppressWarnings("NullableProblems")
     public ResponseEntity<ApiResponse<TokenRefreshResponse>> refresh(
             HttpServletRequest request,     // web 용
+            HttpServletResponse httpResponse,
             @RequestBody(required = false) @Valid TokenRefreshRequest body  // mobile
     ) {
         //
@@ -131,8 +139,11 @@ public class AuthController {
             throw new TokenException("리프레시 토큰을 읽을 수 없거나, 유효하지 않습니다.");
         }
 
-        // AccessToken을 재발급한 Response 객체를 반환받음
+        // AccessToken을 재발급하고 RefreshToken을 교체한 Response 객체를 반환받음
         TokenRefreshResponse tokenRefreshResponse = authService.refreshAccessToken(refreshToken);
+
+        // 교체된 refresh token은 쿠키로만 내려준다.
+        addRefreshTokenCookie(httpResponse, tokenRefreshResponse.getRefreshToken());
         tokenRefreshResponse.setRefreshToken(null);
 
         return ResponseEntity.ok(
@@ -0,0 +1,33 @@
+package com.example.auth.controller;
+
+import com.example.auth.security.JwtKeyManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 토큰 검증용 공개키(JWKS)를 공개하는 라우트
+ * 다른 서비스는 이 공개키로 access token을 직접 검증하므로 인증 서버를 호출할 필요가 없다.
+ * */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private final JwtKeyManager jwtKeyManager;
+
+    // 다음 서명키는 publish-ahead 동안 먼저 공개되므로, 이 값은 publish-ahead보다 작아야 한다.
+    @Value("${jwt.signing.jwks-max-age:300000}")
+    private long jwksMaxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMillis(jwksMaxAge)).cachePublic())
+                .body(jwtKeyManager.jwks());
+    }
+}
@@ -12,12 +12,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/oauth/kakao")
@@ -34,13 +36,13 @@ public class KakaoAuthController {
             HttpSession session,
             HttpServletResponse response
     ) throws IOException {
-        System.out.println("Front-End Callback URL: " + redirectUrl);
+        log.debug("Front-End Callback URL: {}", redirectUrl);
 
         // front-end로부터 전달 받은 redirectUrl이 정상적으로 들어가 있으면...
         if (redirectUrl != null && !redirectUrl.isBlank()) {
             session.setAttribute("kakaoRedirectUrl", redirectUrl);
         } else {
-            System.out.println("기본 설정된 front-end redirectUrl을 사용합니다.");
+            log.debug("기본 설정된 front-end redirectUrl을 사용합니다.");
         }
 
 
@@ -58,7 +60,6 @@ public class KakaoAuthController {
             HttpServletResponse httpResponse
     ) throws IOException {
 
-        System.out.println("code from kakao : " + code);
         try {
 
             // 카카오 인가 서버에게 access token을 발급받으러 token uri 다시 호출
@@ -87,9 +88,7 @@ public class KakaoAuthController {
             // frontEndRedirectUrl(프론트엔드 redirect URL 저장한거 불러오기
             HttpSession savedSession = httpRequest.getSession(false);
             String frontEndRedirectUrl = (String)savedSession.getAttribute("kakaoRedirectUrl");
-            //============================================================================
-            System.out.println("Recovered front end redirect url: " + frontEndRedirectUrl);
-            //============================================================================
+            log.debug("Recovered front end redirect url: {}", frontEndRedirectUrl);
 
             // 프론트엔드로 리다이렉트 시키기(status=success로 전달)
             String successRediretUrl = String.format("%s?status=success", frontEndRedirectUrl);
@@ -103,13 +102,11 @@ public class KakaoAuthController {
 
         } catch (Exception e) {
             // 카카오 로그인 실패
-            System.out.println("Failed to kakao login");
+            log.warn("카카오 로그인 실패: {}", e.getMessage());
 
             HttpSession savedSession = httpRequest.getSession(false);
             String frontEndRedirectUrl = (String)savedSession.getAttribute("kakaoRedirectUrl");
-            //============================================================================
-            System.out.println("Recovered front end redirect url: " + frontEndRedirectUrl);
-            //============================================================================
+            log.debug("Recovered front end redirect url: {}", frontEndRedirectUrl);
 
             // 프론트엔드로 리다이렉트 시키기(status=failed로 전달)
             String failedRediretUrl = String.format("%s?status=failed&message=%s", frontEndRedirectUrl, e.getMessage());
@@ -128,7 +125,7 @@ public class KakaoAuthController {
             HttpServletRequest httpRequest,
             HttpServletResponse httpResponse
     ) {
-        System.out.println("/exchange-token called from Front-End");
+        log.debug("/exchange-token called from Front-End");
 
         // 세션에 임시로 저장해둔 LoginResponse를 복원함
         HttpSession session = httpRequest.getSession(false);
@@ -0,0 +1,15 @@
+package com.example.auth.dto;
+
+import com.example.auth.entity.User;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestChangeRole {
+    @NotNull(message = "변경할 권한을 입력해주세요")
+    private User.Role role;
+}
@@ -0,0 +1,14 @@
+package com.example.auth.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestChangeStatus {
+    @NotNull(message = "계정 활성화 여부를 입력해주세요")
+    private Boolean active;
+}
@@ -0,0 +1,47 @@
+package com.example.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 비대칭키(ES256, EdDSA) 서명 모드에서 사용하는 서명키
+ * 모든 서버가 같은 키를 사용해야 하므로 DB에 보관하며, 개인키는 jwt.secret으로 암호화하여 저장한다.
+ * */
+@Entity
+@Table(name = "jwt_signing_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JwtSigningKey {
+
+    // JWT header의 kid 값
+    @Id
+    @Column(name = "kid", length = 64)
+    private String kid;
+
+    @Column(name = "algorithm", nullable = false, length = 16)
+    private String algorithm;
+
+    // X.509 형식의 공개키
+    @Column(name = "public_key", nullable = false, length = 512)
+    private byte[] publicKey;
+
+    // PKCS#8 형식의 개인키(AES-GCM으로 암호화됨)
+    @Column(name = "private_key", nullable = false, length = 1024)
+    private byte[] privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 이 시간부터 서명에 사용됨(그 전에는 JWKS에만 공개됨)
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+
+    // 이 시간 이후에는 검증에도 사용하지 않음(다음 키가 만들어질때 설정됨)
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -5,7 +5,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_user_created", columnList = "user_id, created_at")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,8 +22,13 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "token", nullable = false, length = 500)
-    private String token;
+    // 토큰 문자열의 SHA-256 digest(원본 토큰은 저장하지 않음), unique index로 조회
+    @Column(name = "token_hash", nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    // 같은 로그인에서 rotation으로 이어진 토큰들의 묶음(UUID 16 byte)
+    @Column(name = "family_id", nullable = false, columnDefinition = "BINARY(16)")
+    private byte[] familyId;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
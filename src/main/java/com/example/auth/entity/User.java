@@ -50,6 +50,12 @@ public class User {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
 
+    // 권한이나 계정 상태가 바뀔때마다 증가시킴, access token의 ver claim과 비교하여 이전 토큰을 무효화한다.
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     // Enum for Role
     public enum Role {
         ROLE_ADMIN,
@@ -65,4 +71,11 @@ public class User {
 
     @Column(name = "profile_image", length = 500)
     private String profileImage;
+
+    /**
+     * 권한 변경, 비활성화 등 이미 발급된 access token의 claim을 더 이상 믿을 수 없게 되었을때 호출한다.
+     * */
+    public void increaseTokenVersion() {
+        this.tokenVersion = (tokenVersion == null ? 0 : tokenVersion) + 1;
+    }
 }
@@ -3,6 +3,7 @@ package com.example.auth.exception;
 import com.example.auth.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -55,7 +56,7 @@ public class GlobalExceptionHandler {
 
 
     @ExceptionHandler(AccountException.class)
-    public ResponseEntity<ApiResponse<Void>> handleAccountException(TokenException ex) {
+    public ResponseEntity<ApiResponse<Void>> handleAccountException(AccountException ex) {
         // logging
         log.warn("계정 오류 : {}", ex.getMessage());
 
@@ -85,6 +86,19 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * 처리할 수 있는 양을 넘은 요청(예: 로그인 폭주로 비밀번호 검증 큐가 가득 참)
+     * 클라이언트는 Retry-After(초) 후에 다시 시도한다.
+     * */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        log.warn("요청 거절(과부하) : {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ApiResponse<Void>> handleRequestMethodNotSupportedException(HttpRequestMethodNotSupportedException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
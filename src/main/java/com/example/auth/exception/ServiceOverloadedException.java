@@ -0,0 +1,18 @@
+package com.example.auth.exception;
+
+/**
+ * 서버가 처리할 수 있는 양을 넘어서 요청을 바로 거절할때 발생되는 Exception
+ * 503(Service Unavailable)과 Retry-After 헤더로 응답한다.
+ * */
+public class ServiceOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
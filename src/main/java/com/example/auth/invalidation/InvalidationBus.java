@@ -0,0 +1,77 @@
+package com.example.auth.invalidation;
+
+import com.example.auth.config.NodeId;
+import com.example.auth.entity.User;
+import com.example.auth.security.AccessTokenRevocationList;
+import com.example.auth.security.TokenVersionRegistry;
+import com.example.auth.security.UserStatusCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 서버마다 메모리에 있는 인증 상태(사용자 상태 캐시, token version, access token 폐기 목록)를 모든 서버에 맞춘다.
+ *
+ * - 변경한 서버는 자기 메모리에 바로 반영하고 InvalidationTransport로 event를 발행한다.
+ * - 다른 서버는 event를 받아서 같은 변경을 반영한다(이 서버가 발행한 event는 건너뜀)
+ * - 반영은 모두 멱등(같은 event를 두번 받아도 결과가 같음)
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvalidationBus {
+    private final InvalidationTransport transport;
+    private final UserStatusCache userStatusCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final AccessTokenRevocationList accessTokenRevocationList;
+
+    @PostConstruct
+    public void init() {
+        transport.subscribe(this::applyRemote);
+    }
+
+    /**
+     * access token을 폐기한다(로그아웃)
+     * */
+    public void accessTokenRevoked(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return;
+        }
+        accessTokenRevocationList.revoke(tokenId, expiresAt);
+        transport.publish(InvalidationEvent.accessTokenRevoked(tokenId, expiresAt, NodeId.value()));
+    }
+
+    /**
+     * 사용자의 권한, 계정 상태, token version이 바뀌었거나 새로 가입함
+     * transaction 안에서 호출되면 event도 같은 transaction으로 commit된다.
+     * */
+    public void userChanged(User user) {
+        apply(user.getId(), user.getEmail(), user.getTokenVersion());
+        transport.publish(InvalidationEvent.userChanged(
+                user.getId(), user.getEmail(), user.getTokenVersion(), NodeId.value()));
+    }
+
+    private void applyRemote(List<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            if (NodeId.value().equals(event.origin())) {
+                continue;
+            }
+            switch (event.type()) {
+                case ACCESS_TOKEN_REVOKED -> accessTokenRevocationList.revoke(event.subject(), event.expiresAt());
+                case USER_CHANGED -> apply(event.userId(), event.subject(), event.tokenVersion());
+            }
+        }
+        log.debug("invalidation event 반영: {}개", events.size());
+    }
+
+    private void apply(Long userId, String email, Integer tokenVersion) {
+        if (userId != null && tokenVersion != null) {
+            tokenVersionRegistry.update(userId, tokenVersion);
+        }
+        userStatusCache.invalidate(userId, email);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.auth.invalidation;
+
+import java.time.Instant;
+
+/**
+ * 다른 서버에 전달할 캐시/폐기 상태 변경
+ *
+ * @param id transport가 부여한 순번(발행 전에는 0)
+ * @param type 변경 종류
+ * @param userId 사용자 id
+ * @param subject ACCESS_TOKEN_REVOKED는 jti, USER_CHANGED는 사용자 이메일
+ * @param tokenVersion 변경 후 사용자의 token version(USER_CHANGED)
+ * @param expiresAt 폐기된 토큰의 만료시간(ACCESS_TOKEN_REVOKED)
+ * @param origin 발행한 서버
+ * */
+public record InvalidationEvent(
+        long id,
+        Type type,
+        Long userId,
+        String subject,
+        Integer tokenVersion,
+        Instant expiresAt,
+        String origin
+) {
+    public enum Type {
+        ACCESS_TOKEN_REVOKED,   // 로그아웃한 access token
+        USER_CHANGED            // 권한, 계정 상태 변경, 가입
+    }
+
+    public static InvalidationEvent accessTokenRevoked(String tokenId, Instant expiresAt, String origin) {
+        return new InvalidationEvent(0L, Type.ACCESS_TOKEN_REVOKED, null, tokenId, null, expiresAt, origin);
+    }
+
+    public static InvalidationEvent userChanged(Long userId, String email, Integer tokenVersion, String origin) {
+        return new InvalidationEvent(0L, Type.USER_CHANGED, userId, email, tokenVersion, null, origin);
+    }
+}
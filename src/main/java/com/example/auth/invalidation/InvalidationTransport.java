@@ -0,0 +1,22 @@
+package com.example.auth.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 서버간 invalidation event 전달 방식
+ * 기본 구현은 DB 변경 로그를 주기적으로 읽는 JdbcPollingInvalidationTransport이고,
+ * 메시지 broker 등 push 방식 구현으로 교체할 수 있다.
+ * */
+public interface InvalidationTransport {
+
+    /**
+     * event를 발행한다. transaction 안에서 호출되면 그 transaction과 함께 commit되어야 한다.
+     * */
+    void publish(InvalidationEvent event);
+
+    /**
+     * 발행된 event(다른 서버와 이 서버 모두)를 발행 순서대로 받는다.
+     * */
+    void subscribe(Consumer<List<InvalidationEvent>> listener);
+}
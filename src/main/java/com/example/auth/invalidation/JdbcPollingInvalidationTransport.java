@@ -0,0 +1,277 @@
+package com.example.auth.invalidation;
+
+import com.example.auth.scheduling.SchedulerLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * invalidation_events 테이블(outbox)에 event를 쓰고, 모든 서버가 주기적으로 읽어가는 transport
+ *
+ * - 발행 : 호출한 transaction에서 INSERT(변경 내용과 함께 commit됨)
+ * - 수신 : poll-interval마다 id > cursor 범위를 primary key로 읽는다. 시작할때는 현재 마지막 id부터 읽는다.
+ * - 시작시 재생 : 새로 뜬 서버의 메모리는 비어있으므로 요청을 받기 전에(모든 bean 생성 직후) 아직 유효한 event를 다시 반영한다.
+ *   - ACCESS_TOKEN_REVOKED : 폐기된 access token이 아직 만료되지 않은 event
+ *   - USER_CHANGED : jwt.claims-max-staleness 안에 생긴 event(그보다 오래된 토큰의 claim은 DB로 다시 확인됨)
+ * - auto increment id는 commit 순서와 다를 수 있으므로, 건너뛴 id는 gap-timeout 동안 다시 확인한다.
+ * - 지연시간 : event 생성부터 이 서버가 읽을때까지 걸린 시간(DB 시간 기준)을 auth.invalidation.lag로 기록
+ * - retention이 지난 event는 주기적으로 삭제한다(SchedulerLease로 한 서버에서만 실행)
+ * - 읽기는 ReentrantLock으로 한번에 하나만 실행한다(virtual thread 모드에서 JDBC 대기 중 carrier thread를 잡지 않음)
+ * */
+@Slf4j
+@Component
+public class JdbcPollingInvalidationTransport implements InvalidationTransport, SmartInitializingSingleton {
+    static final String CLEANUP_LEASE_NAME = "invalidation-events-cleanup";
+    private static final int MAX_TRACKED_GAP = 1_000;
+    private static final int CLEANUP_CHUNK = 1_000;
+
+    private static final String INSERT =
+            "INSERT INTO invalidation_events (type, user_id, subject, token_version, expires_at, origin, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, LOCALTIMESTAMP(3))";
+    private static final String SELECT_COLUMNS =
+            "SELECT id, type, user_id, subject, token_version, expires_at, origin, " +
+                    "TIMESTAMPDIFF(MICROSECOND, created_at, LOCALTIMESTAMP(3)) AS age_micros FROM invalidation_events ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLease schedulerLease;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final long retentionMillis;
+    private final long claimsMaxStalenessMillis;
+    private final Timer lagTimer;
+    private final Counter receivedCounter;
+    private final List<Consumer<List<InvalidationEvent>>> listeners = new CopyOnWriteArrayList<>();
+
+    // lock을 잡고 사용
+    private final ReentrantLock lock = new ReentrantLock();
+    private long cursor = -1L;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();    // 건너뛴 id -> 포기할 시간(ms)
+
+    public JdbcPollingInvalidationTransport(
+            JdbcTemplate jdbcTemplate,
+            SchedulerLease schedulerLease,
+            MeterRegistry meterRegistry,
+            @Value("${auth.invalidation.batch-size:500}") int batchSize,
+            @Value("${auth.invalidation.gap-timeout:10000}") long gapTimeoutMillis,
+            @Value("${auth.invalidation.retention:86400000}") long retentionMillis,
+            @Value("${jwt.claims-max-staleness:60000}") long claimsMaxStalenessMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerLease = schedulerLease;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.retentionMillis = retentionMillis;
+        this.claimsMaxStalenessMillis = claimsMaxStalenessMillis;
+        this.lagTimer = Timer.builder("auth.invalidation.lag")
+                .description("invalidation event 생성부터 이 서버가 읽을때까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("auth.invalidation.received")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        jdbcTemplate.update(INSERT,
+                event.type().name(),
+                event.userId(),
+                event.subject(),
+                event.tokenVersion(),
+                event.expiresAt() == null ? null : Timestamp.from(event.expiresAt()),
+                event.origin());
+    }
+
+    @Override
+    public void subscribe(Consumer<List<InvalidationEvent>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 모든 bean이 만들어진 뒤(listener 등록 후, 요청을 받기 전) 시작 위치를 정하고 아직 유효한 event를 재생한다.
+     * */
+    @Override
+    public void afterSingletonsInstantiated() {
+        lock.lock();
+        try {
+            if (cursor < 0) {
+                start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 새 event를 읽어서 listener에 전달한다.
+     * */
+    @Scheduled(
+            fixedDelayString = "${auth.invalidation.poll-interval:1000}",
+            initialDelayString = "${auth.invalidation.poll-interval:1000}"
+    )
+    public void poll() {
+        lock.lock();
+        try {
+            if (cursor < 0) {
+                start();
+                return;
+            }
+            pollNew();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재 마지막 id를 시작 위치로 정하고, 그 이전 event 중 이 서버의 메모리에 아직 필요한 event를 listener에 전달한다.
+     * */
+    private void start() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM invalidation_events", Long.class);
+        long end = max == null ? 0L : max;
+
+        List<InvalidationEvent> events = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        long lastId = 0L;
+        while (true) {
+            List<InvalidationEvent> batch = jdbcTemplate.query(
+                    SELECT_COLUMNS + "WHERE id > ? AND id <= ? AND (" +
+                            "(type = 'ACCESS_TOKEN_REVOKED' AND expires_at > ?) OR " +
+                            "(type = 'USER_CHANGED' AND TIMESTAMPDIFF(MICROSECOND, created_at, LOCALTIMESTAMP(3)) < ?)" +
+                            ") ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> toEvent(rs),
+                    lastId, end, now, claimsMaxStalenessMillis * 1000L, batchSize);
+            events.addAll(batch);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).id();
+        }
+        cursor = end;
+
+        if (!events.isEmpty()) {
+            log.info("시작 전 invalidation event 재생: {}개", events.size());
+            deliver(events);
+        }
+    }
+
+    private void pollNew() {
+        List<InvalidationEvent> events = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        // 1. 이전에 건너뛴 id(늦게 commit된 transaction)
+        if (!gaps.isEmpty()) {
+            List<Long> ids = List.copyOf(gaps.keySet());
+            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+            List<InvalidationEvent> found = jdbcTemplate.query(
+                    SELECT_COLUMNS + "WHERE id IN (" + placeholders + ")", this::mapRow, ids.toArray());
+            for (InvalidationEvent event : found) {
+                gaps.remove(event.id());
+            }
+            events.addAll(found);
+            gaps.values().removeIf(giveUpAt -> giveUpAt < now);
+        }
+
+        // 2. cursor 이후의 새 event
+        while (true) {
+            List<InvalidationEvent> batch = jdbcTemplate.query(
+                    SELECT_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?", this::mapRow, cursor, batchSize);
+            for (InvalidationEvent event : batch) {
+                trackGap(cursor, event.id(), now);
+                cursor = event.id();
+            }
+            events.addAll(batch);
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (events.isEmpty()) {
+            return;
+        }
+        events.sort(Comparator.comparingLong(InvalidationEvent::id));
+        receivedCounter.increment(events.size());
+        deliver(events);
+    }
+
+    private void deliver(List<InvalidationEvent> events) {
+        for (Consumer<List<InvalidationEvent>> listener : listeners) {
+            try {
+                listener.accept(events);
+            } catch (RuntimeException e) {
+                log.warn("invalidation event 처리 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * retention이 지난 event를 chunk 단위로 삭제한다(lease를 잡은 서버 하나만 실행)
+     * */
+    @Scheduled(
+            fixedDelayString = "${auth.invalidation.cleanup-interval:3600000}",
+            initialDelayString = "${auth.invalidation.cleanup-interval:3600000}"
+    )
+    public void cleanup() {
+        if (!schedulerLease.tryAcquire(CLEANUP_LEASE_NAME, 600_000L)) {
+            return;
+        }
+        try {
+            Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(retentionMillis, ChronoUnit.MILLIS));
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(
+                        "DELETE FROM invalidation_events WHERE created_at < ? LIMIT " + CLEANUP_CHUNK, before);
+            } while (deleted == CLEANUP_CHUNK);
+        } finally {
+            schedulerLease.release(CLEANUP_LEASE_NAME);
+        }
+    }
+
+    private void trackGap(long previous, long current, long now) {
+        long missing = current - previous - 1;
+        if (missing <= 0 || missing > MAX_TRACKED_GAP) {
+            return;
+        }
+        for (long id = previous + 1; id < current; id++) {
+            gaps.put(id, now + gapTimeoutMillis);
+        }
+    }
+
+    /**
+     * 새로 읽은 event(지연시간 기록)
+     * */
+    private InvalidationEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long ageMicros = rs.getLong("age_micros");
+        lagTimer.record(Math.max(0L, ageMicros), TimeUnit.MICROSECONDS);
+        return toEvent(rs);
+    }
+
+    private static InvalidationEvent toEvent(ResultSet rs) throws SQLException {
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        return new InvalidationEvent(
+                rs.getLong("id"),
+                InvalidationEvent.Type.valueOf(rs.getString("type")),
+                rs.getObject("user_id", Long.class),
+                rs.getString("subject"),
+                rs.getObject("token_version", Integer.class),
+                expiresAt == null ? null : expiresAt.toInstant(),
+                rs.getString("origin")
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.auth.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 처리 경로(hot path) logger의 초당 로그 수를 제한하는 logback TurboFilter(logback-spring.xml에서 등록)
+ *
+ * 잘못된 토큰이 대량으로 들어오는 경우처럼 같은 로그가 폭주해도 초당 budget까지만 기록하고 나머지는 버린다.
+ * ERROR는 제한하지 않는다. budget은 prefix(규칙)마다 따로 계산된다.
+ * <pre>
+ * &lt;turboFilter class="com.example.auth.logging.LogBudgetTurboFilter"&gt;
+ *     &lt;budget&gt;com.example.auth.security=200&lt;/budget&gt;   &lt;!-- 초당 200건 --&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ * */
+public class LogBudgetTurboFilter extends TurboFilter {
+    private final LoggerPrefixRules<Budget> budgets = new LoggerPrefixRules<>();
+
+    public void addBudget(String rule) {
+        budgets.add(rule, value -> new Budget(Long.parseLong(value)));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.isGreaterOrEqual(Level.ERROR) || budgets.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        // 기록되지 않을 레벨이 budget을 소모하지 않도록 함
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Budget budget = budgets.find(logger.getName());
+        if (budget == null || budget.tryAcquire(System.currentTimeMillis())) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    /**
+     * @return budget 초과로 버려진 로그 수
+     * */
+    public long getDropped() {
+        return budgets.values().stream().mapToLong(Budget::dropped).sum();
+    }
+
+    /**
+     * 1초 단위 고정 window 카운터
+     * window 시작 시간(초)과 사용량을 하나의 long에 담아 CAS 한번으로 갱신한다.
+     * (상위 32bit : epoch second, 하위 32bit : 사용량)
+     * */
+    private static final class Budget {
+        private final long perSecond;
+        private final AtomicLong state = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+
+        Budget(long perSecond) {
+            if (perSecond < 0 || perSecond > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("초당 budget 범위를 벗어났습니다: " + perSecond);
+            }
+            this.perSecond = perSecond;
+        }
+
+        boolean tryAcquire(long nowMillis) {
+            long second = nowMillis / 1000L;
+            while (true) {
+                long current = state.get();
+                long used = (current >>> 32) == (second & 0xFFFFFFFFL) ? current & 0xFFFFFFFFL : 0L;
+                if (used >= perSecond) {
+                    dropped.increment();
+                    return false;
+                }
+                long next = (second << 32) | (used + 1);
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        long dropped() {
+            return dropped.sum();
+        }
+    }
+}
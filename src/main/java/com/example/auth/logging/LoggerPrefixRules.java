@@ -0,0 +1,70 @@
+package com.example.auth.logging;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * logger 이름의 prefix(패키지/클래스)별 설정 목록
+ * 가장 긴 prefix가 우선이며, logger 이름별 결과는 캐시해서 로그 호출마다 문자열 비교를 하지 않는다.
+ *
+ * @param <T> prefix에 연결된 설정 값
+ * */
+final class LoggerPrefixRules<T> {
+    private static final Object NONE = new Object();
+
+    private final List<Entry<T>> entries = new ArrayList<>();
+    private final ConcurrentHashMap<String, Object> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * "logger-prefix=value" 형식의 규칙을 추가한다.
+     *
+     * @param rule 규칙 문자열
+     * @param parser value 부분을 설정 값으로 변환하는 함수
+     * */
+    void add(String rule, Function<String, T> parser) {
+        int separator = rule.lastIndexOf('=');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("logger-prefix=value 형식이어야 합니다: " + rule);
+        }
+        String prefix = rule.substring(0, separator).trim();
+        T value = parser.apply(rule.substring(separator + 1).trim());
+
+        entries.add(new Entry<>(prefix, value));
+        entries.sort(Comparator.comparingInt((Entry<T> e) -> e.prefix().length()).reversed());
+        resolved.clear();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    List<T> values() {
+        return entries.stream().map(Entry::value).toList();
+    }
+
+    /**
+     * @return logger에 적용되는 설정(없으면 null)
+     * */
+    @SuppressWarnings("unchecked")
+    T find(String loggerName) {
+        Object value = resolved.computeIfAbsent(loggerName, this::match);
+        return value == NONE ? null : (T) value;
+    }
+
+    private Object match(String loggerName) {
+        for (Entry<T> entry : entries) {
+            String prefix = entry.prefix();
+            if (loggerName.startsWith(prefix)
+                    && (loggerName.length() == prefix.length() || loggerName.charAt(prefix.length()) == '.')) {
+                return entry.value();
+            }
+        }
+        return NONE;
+    }
+
+    private record Entry<T>(String prefix, T value) {
+    }
+}
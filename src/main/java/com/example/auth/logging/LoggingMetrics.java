@@ -0,0 +1,55 @@
+package com.example.auth.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * logback-spring.xml의 비동기 appender, sampling/budget 필터 상태를 메트릭으로 노출
+ *
+ * - logging.events.dropped{reason=sampled|budget} : 필터에서 버려진 로그 수
+ * - logging.async.queue.remaining{appender=...} : 비동기 appender 큐의 남은 용량(0에 가까우면 로그가 버려지고 있음)
+ * */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof SamplingTurboFilter sampling) {
+                FunctionCounter.builder("logging.events.dropped", sampling, SamplingTurboFilter::getDropped)
+                        .tag("reason", "sampled")
+                        .register(registry);
+            } else if (filter instanceof LogBudgetTurboFilter budget) {
+                FunctionCounter.builder("logging.events.dropped", budget, LogBudgetTurboFilter::getDropped)
+                        .tag("reason", "budget")
+                        .register(registry);
+            }
+        }
+
+        Iterator<Appender<ILoggingEvent>> appenders =
+                context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof AsyncAppender async) {
+                Gauge.builder("logging.async.queue.remaining", async, AsyncAppender::getRemainingCapacity)
+                        .tag("appender", async.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
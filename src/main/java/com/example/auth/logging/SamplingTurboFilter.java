@@ -0,0 +1,64 @@
+package com.example.auth.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * logger 카테고리별로 일부 로그만 기록하는 logback TurboFilter(logback-spring.xml에서 등록)
+ *
+ * 요청마다 찍히는 DEBUG/INFO 로그를 비율만큼만 남긴다. WARN 이상은 항상 기록된다.
+ * <pre>
+ * &lt;turboFilter class="com.example.auth.logging.SamplingTurboFilter"&gt;
+ *     &lt;rule&gt;com.example.auth.security=0.1&lt;/rule&gt;   &lt;!-- 10%만 기록 --&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ * */
+public class SamplingTurboFilter extends TurboFilter {
+    private final LoggerPrefixRules<Double> rules = new LoggerPrefixRules<>();
+    private final LongAdder dropped = new LongAdder();
+
+    public void addRule(String rule) {
+        rules.add(rule, value -> {
+            double ratio = Double.parseDouble(value);
+            if (ratio < 0.0 || ratio > 1.0) {
+                throw new IllegalArgumentException("sampling 비율은 0.0 ~ 1.0 이어야 합니다: " + rule);
+            }
+            return ratio;
+        });
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isDebugEnabled() 같은 레벨 확인 호출(format == null)과 WARN 이상은 그대로 통과
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || rules.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        // 어차피 기록되지 않을 레벨은 sampling 대상이 아님
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Double ratio = rules.find(logger.getName());
+        if (ratio == null || ratio >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        if (ratio > 0.0 && ThreadLocalRandom.current().nextDouble() < ratio) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * @return sampling으로 버려진 로그 수
+     * */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.auth.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인증 단계별 소요시간/결과 메트릭
+ *
+ * 단계(stage)와 결과(outcome) tag가 붙은 Timer로 기록한다. Timer의 count가 곧 결과별 건수이므로
+ * 에러율 알림은 outcome별 count, 지연시간은 histogram(p99 등)으로 조회한다.
+ * <pre>
+ * auth.filter{stage=extract|verify|user_lookup|context, outcome=...}
+ * auth.login{stage=password_match|token_issue, outcome=...}
+ * auth.refresh{stage=refresh, outcome=...}
+ * auth.kakao{stage=token|user_info, outcome=...}
+ * </pre>
+ *
+ * 필터처럼 요청마다 호출되는 곳에서 사용하므로 Timer는 (stage, outcome)별로 한번만 만들어 배열에 보관하고,
+ * 시간 측정은 Timer.Sample 대신 System.nanoTime()을 그대로 사용한다.
+ * */
+@Component
+public class AuthMetrics {
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(1_000);     // 1us
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(10);
+
+    public enum Stage {
+        FILTER_EXTRACT("auth.filter", "extract"),
+        FILTER_VERIFY("auth.filter", "verify"),
+        FILTER_USER_LOOKUP("auth.filter", "user_lookup"),
+        FILTER_CONTEXT("auth.filter", "context"),
+        LOGIN_PASSWORD("auth.login", "password_match"),
+        LOGIN_TOKEN("auth.login", "token_issue"),
+        REFRESH("auth.refresh", "refresh"),
+        KAKAO_TOKEN("auth.kakao", "token"),
+        KAKAO_USER_INFO("auth.kakao", "user_info");
+
+        private final String meterName;
+        private final String tagValue;
+
+        Stage(String meterName, String tagValue) {
+            this.meterName = meterName;
+            this.tagValue = tagValue;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        ABSENT,     // 토큰 없음
+        EXPIRED,
+        INVALID,
+        INACTIVE,   // 비활성화, 삭제, 폐기된 token version
+        REVOKED,    // 로그아웃으로 폐기된 access token
+        ERROR;      // 외부 호출 실패 등 예상하지 못한 오류
+
+        private final String tagValue = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Timer[][] timers = new Timer[Stage.values().length][Outcome.values().length];
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return 측정 시작 시간(System.nanoTime)
+     * */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * startNanos부터 지금까지의 시간을 기록한다.
+     *
+     * @return 현재 시간(System.nanoTime), 다음 단계의 시작 시간으로 그대로 사용할 수 있음
+     * */
+    public long record(Stage stage, Outcome outcome, long startNanos) {
+        long now = System.nanoTime();
+        timer(stage, outcome).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * 실패 결과를 기록하고 예외를 그대로 돌려준다.
+     * <pre>throw authMetrics.fail(Stage.REFRESH, Outcome.EXPIRED, start, new TokenException(...));</pre>
+     * */
+    public <E extends RuntimeException> E fail(Stage stage, Outcome outcome, long startNanos, E exception) {
+        record(stage, outcome, startNanos);
+        return exception;
+    }
+
+    private Timer timer(Stage stage, Outcome outcome) {
+        Timer timer = timers[stage.ordinal()][outcome.ordinal()];
+        if (timer == null) {
+            // 동시에 만들어도 registry가 같은 Timer를 돌려주므로 동기화하지 않음
+            timer = Timer.builder(stage.meterName)
+                    .tag("stage", stage.tagValue)
+                    .tag("outcome", outcome.tagValue)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EXPECTED)
+                    .maximumExpectedValue(MAX_EXPECTED)
+                    .register(meterRegistry);
+            timers[stage.ordinal()][outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@SuppressWarnings("NullableProblems")
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    /**
+     * 아직 검증에 사용할 수 있는 서명키 목록을 최근에 활성화되는 순서로 가져온다.
+     * @param now 현재 시간
+     * @return 만료되지 않은 서명키 목록
+     * */
+    @Query("SELECT k FROM JwtSigningKey k WHERE k.expiresAt IS NULL OR k.expiresAt > :now ORDER BY k.activatesAt DESC")
+    List<JwtSigningKey> findUsableKeys(@Param("now") LocalDateTime now);
+
+    /**
+     * 가장 먼저 만든 서명키(비대칭키 서명을 시작한 시간), 만료된 키도 포함
+     * */
+    Optional<JwtSigningKey> findFirstByOrderByCreatedAtAsc();
+}
@@ -1,12 +1,14 @@
 package com.example.auth.repository;
 
 import com.example.auth.entity.RefreshToken;
+import com.example.auth.security.TokenDigest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,11 +17,59 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     /**
      * 토큰 문자열을 전달하여 RefreshToken Entity를 가져온다
+     * DB에는 토큰의 SHA-256 digest만 저장되어 있으므로 digest로 조회한다(unique index).
      * @param token Refresh 토큰 문자열
      * @return RefreshToken Entity by Optional(Null safty)
      * */
-    Optional<RefreshToken> findByToken(String token);
+    default Optional<RefreshToken> findByToken(String token) {
+        return findByTokenHash(TokenDigest.sha256(token));
+    }
 
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * refresh 처리에 필요한 토큰/사용자 정보를 한번에 조회한다(token_hash unique index + users primary key)
+     * entity가 아닌 projection이므로 persistence context에 올라가지 않고 User 지연 로딩도 없다.
+     * */
+    @Query("SELECT new com.example.auth.repository.RefreshTokenView(" +
+            "rt.id, rt.familyId, rt.expiresAt, rt.revoked, rt.lastUsedAt, u.id, u.email, u.role, u.isActive, u.tokenVersion) " +
+            "FROM RefreshToken rt JOIN rt.user u WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshTokenView> findViewByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+    /**
+     * 아직 사용되지 않았고, 폐기/만료되지 않은 토큰만 사용됨으로 표시한다.
+     * 확인과 변경을 UPDATE 한번으로 처리하므로 같은 토큰으로 동시에 요청해도 하나만 1을 받는다(row lock 대기 없음).
+     *
+     * @return 사용 처리된 행 수(1이면 rotation 가능, 0이면 없거나 이미 사용/폐기/만료된 토큰)
+     * */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.lastUsedAt = :now " +
+            "WHERE rt.tokenHash = :tokenHash AND rt.lastUsedAt IS NULL AND rt.revoked = false AND rt.expiresAt > :now")
+    int markUsed(@Param("tokenHash") byte[] tokenHash, @Param("now") LocalDateTime now);
+
+    /**
+     * family에 속한 토큰을 모두 폐기한다(재사용 감지시)
+     * */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") byte[] familyId);
+
+    /**
+     * 사용자의 활성 토큰(폐기/사용/만료되지 않은 토큰) 중 최신 keep개만 남기고 삭제한다.
+     * 삭제할 id를 derived table로 먼저 고르므로(idx_refresh_tokens_user_created) 행마다 조회/삭제하지 않는다.
+     *
+     * @param userId 사용자 id
+     * @param keep 남길 토큰 수
+     * @param now 만료 기준 시간
+     * @return 삭제된 토큰 수
+     * */
+    @Modifying
+    @Query(value = "DELETE rt FROM refresh_tokens rt JOIN (" +
+            "SELECT id FROM refresh_tokens " +
+            "WHERE user_id = :userId AND is_revoked = FALSE AND last_used_at IS NULL AND expires_at > :now " +
+            "ORDER BY created_at DESC, id DESC LIMIT 18446744073709551615 OFFSET :keep" +
+            ") oldest ON oldest.id = rt.id", nativeQuery = true)
+    int deleteActiveExceptNewest(@Param("userId") Long userId, @Param("keep") int keep, @Param("now") LocalDateTime now);
 
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.user.email = :email")
@@ -0,0 +1,44 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.User;
+import com.example.auth.security.UserSnapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * refresh 처리에 필요한 토큰과 사용자 정보만 담은 projection
+ * RefreshToken과 User를 join한 조회 한번으로 만들어지므로 지연 로딩(User)이 일어나지 않는다.
+ *
+ * @param tokenId refresh token id
+ * @param familyId rotation family
+ * @param expiresAt 만료 시간
+ * @param revoked 폐기 여부
+ * @param lastUsedAt 사용된 시간(사용되지 않았으면 null)
+ * @param userId 사용자 id
+ * @param email 사용자 이메일
+ * @param role 사용자 권한
+ * @param active 계정 활성화 여부
+ * @param tokenVersion 사용자의 현재 token version
+ * */
+public record RefreshTokenView(
+        Long tokenId,
+        byte[] familyId,
+        LocalDateTime expiresAt,
+        boolean revoked,
+        LocalDateTime lastUsedAt,
+        Long userId,
+        String email,
+        User.Role role,
+        Boolean active,
+        Integer tokenVersion
+) {
+    public UserSnapshot user() {
+        return new UserSnapshot(
+                userId,
+                email,
+                role,
+                Boolean.TRUE.equals(active),
+                tokenVersion == null ? 0 : tokenVersion
+        );
+    }
+}
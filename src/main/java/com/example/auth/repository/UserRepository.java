@@ -2,8 +2,12 @@ package com.example.auth.repository;
 
 import com.example.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -30,4 +34,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return 사용자 정보 (Optional)
      * */
     Optional<User> findByProviderAndProviderId(String provider, String providerId);
+
+    /**
+     * 비밀번호 hash만 바꾼다(로그인시 hash 갱신)
+     * 읽어온 hash가 그대로일 때만 바꾸므로, 그 사이에 비밀번호가 바뀌었거나 다른 서버가 먼저 갱신했으면 아무것도 하지 않는다.
+     * 다른 컬럼(계정 상태, token version 등)은 건드리지 않는다.
+     *
+     * @return 변경된 행 수(0이면 이미 바뀐 hash)
+     * */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash, u.updatedAt = :now WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash, @Param("now") LocalDateTime now);
 }
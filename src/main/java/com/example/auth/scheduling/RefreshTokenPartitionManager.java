@@ -0,0 +1,155 @@
+package com.example.auth.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * expires_at 주 단위로 partition된 refresh_tokens의 partition을 관리한다(auth.refresh-token.partitioning.enabled)
+ *
+ * - partition 이름은 p_yyyyMMdd(이 날짜 0시 이전에 만료되는 토큰, 월요일 기준)
+ * - create ahead : refresh token 만료시간 + ahead-weeks 주까지의 partition을 pmax(MAXVALUE)를 나눠서 미리 만든다.
+ *   pmax가 비어있을 때만 나눈다(메타데이터만 변경). 행이 있으면 REORGANIZE가 행을 모두 복사하므로 경고만 남긴다.
+ *   기존 행이 들어갈 partition은 db/partitioning/refresh_tokens_weekly.sql이 처음에 모두 만든다.
+ * - drop behind : 상한 날짜가 지난 partition은 안의 토큰이 모두 만료되었으므로 DROP PARTITION 한다.
+ * - 테이블 구조 변경은 db/partitioning/refresh_tokens_weekly.sql로 먼저 적용해야 한다.
+ * - SchedulerLease로 한 서버에서만 실행한다.
+ * */
+@Slf4j
+@Component
+public class RefreshTokenPartitionManager {
+    static final String LEASE_NAME = "refresh-token-partitions";
+    private static final String MAX_PARTITION = "pmax";
+    private static final String PREFIX = "p_";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLease schedulerLease;
+    private final boolean enabled;
+    private final long refreshTokenExpiration;
+    private final int aheadWeeks;
+    private final Counter createdCounter;
+    private final Counter droppedCounter;
+
+    public RefreshTokenPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            SchedulerLease schedulerLease,
+            MeterRegistry meterRegistry,
+            @Value("${auth.refresh-token.partitioning.enabled:false}") boolean enabled,
+            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration,
+            @Value("${auth.refresh-token.partitioning.ahead-weeks:2}") int aheadWeeks
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerLease = schedulerLease;
+        this.enabled = enabled;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.aheadWeeks = aheadWeeks;
+        this.createdCounter = Counter.builder("auth.token.partition").tag("operation", "create")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("auth.token.partition").tag("operation", "drop")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${auth.refresh-token.partitioning.maintenance-interval:21600000}",
+            initialDelayString = "10000"
+    )
+    public void maintain() {
+        if (!enabled || !schedulerLease.tryAcquire(LEASE_NAME, 600_000L)) {
+            return;
+        }
+        try {
+            List<String> partitions = partitions();
+            if (!partitions.contains(MAX_PARTITION)) {
+                log.warn("refresh_tokens가 partition되어 있지 않음(db/partitioning/refresh_tokens_weekly.sql 적용 필요)");
+                return;
+            }
+
+            LocalDate today = LocalDate.now();
+            createAhead(partitions, today);
+            dropBehind(partitions, today);
+        } finally {
+            schedulerLease.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * 지금 발급되는 토큰의 만료일 + ahead-weeks 주까지 partition을 만든다.
+     * */
+    private void createAhead(List<String> partitions, LocalDate today) {
+        LocalDate last = partitions.stream()
+                .map(RefreshTokenPartitionManager::upperBound)
+                .filter(Objects::nonNull)
+                .max(LocalDate::compareTo)
+                .orElse(today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+
+        long expirationDays = (refreshTokenExpiration + 86_399_999L) / 86_400_000L;
+        LocalDate until = today.plusDays(expirationDays).plusWeeks(aheadWeeks);
+
+        for (LocalDate bound = last.plusWeeks(1); !bound.isAfter(until.plusWeeks(1)); bound = bound.plusWeeks(1)) {
+            if (!maxPartitionEmpty()) {
+                log.warn("refresh_tokens의 {} partition에 행이 있어서 나누지 않음" +
+                        "(REORGANIZE가 행을 모두 복사하므로 점검 시간에 직접 나눠야 함)", MAX_PARTITION);
+                return;
+            }
+            String name = PREFIX + bound.format(NAME_FORMAT);
+            jdbcTemplate.execute("ALTER TABLE refresh_tokens REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                    "PARTITION " + name + " VALUES LESS THAN (TO_DAYS('" + bound + "')), " +
+                    "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            createdCounter.increment();
+            log.info("refresh_tokens partition 생성: {}", name);
+        }
+    }
+
+    /**
+     * 상한 날짜가 오늘 이전인 partition(토큰이 모두 만료됨)을 삭제한다.
+     * */
+    private void dropBehind(List<String> partitions, LocalDate today) {
+        for (String name : partitions) {
+            LocalDate bound = upperBound(name);
+            if (bound != null && !bound.isAfter(today)) {
+                jdbcTemplate.execute("ALTER TABLE refresh_tokens DROP PARTITION " + name);
+                droppedCounter.increment();
+                log.info("만료된 refresh_tokens partition 삭제: {}", name);
+            }
+        }
+    }
+
+    private boolean maxPartitionEmpty() {
+        return jdbcTemplate.queryForList(
+                "SELECT 1 FROM refresh_tokens PARTITION (" + MAX_PARTITION + ") LIMIT 1", Integer.class).isEmpty();
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'refresh_tokens' AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class);
+    }
+
+    /**
+     * p_yyyyMMdd 이름에서 상한 날짜를 읽는다(pmax 등 다른 이름이면 null)
+     * */
+    private static LocalDate upperBound(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PREFIX.length()), NAME_FORMAT);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.auth.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 만료되었거나 폐기된 refresh token을 주기적으로 삭제하는 작업
+ *
+ * - id 순서로(keyset) chunk-size개씩 골라서 primary key로 삭제한다. chunk마다 바로 commit하므로 lock이 짧다.
+ * - chunk 사이에 pause만큼 쉬어서 로그인(insert)과 refresh(update)가 lock을 기다리지 않게 한다.
+ * - SchedulerLease로 한 서버에서만 실행하고, lease 시간이 지나면 남은 행은 다음 실행으로 넘긴다.
+ * - 메트릭 : auth.token.purge.deleted(삭제한 행 수), auth.token.purge.chunk(chunk 하나에 걸린 시간)
+ * - partition 사용시(auth.refresh-token.partitioning.enabled) 만료된 토큰은 RefreshTokenPartitionManager가 partition 단위로
+ *   삭제하므로, 여기서는 폐기된 토큰만 삭제한다.
+ * */
+@Slf4j
+@Component
+public class RefreshTokenPurgeJob {
+    static final String LEASE_NAME = "refresh-token-purge";
+
+    private static final String EXPIRED_OR_REVOKED = "(expires_at < ? OR is_revoked = TRUE)";
+    private static final String REVOKED = "is_revoked = TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLease schedulerLease;
+    private final boolean enabled;
+    private final boolean partitioned;
+    private final String condition;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long leaseMillis;
+    private final Counter deletedCounter;
+    private final Timer chunkTimer;
+
+    public RefreshTokenPurgeJob(
+            JdbcTemplate jdbcTemplate,
+            SchedulerLease schedulerLease,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token-purge.enabled:true}") boolean enabled,
+            @Value("${auth.token-purge.chunk-size:500}") int chunkSize,
+            @Value("${auth.token-purge.pause:200}") long pauseMillis,
+            @Value("${auth.token-purge.lease:600000}") long leaseMillis,
+            @Value("${auth.refresh-token.partitioning.enabled:false}") boolean partitioned
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerLease = schedulerLease;
+        this.enabled = enabled;
+        this.partitioned = partitioned;
+        this.condition = partitioned ? REVOKED : EXPIRED_OR_REVOKED;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.leaseMillis = leaseMillis;
+        this.deletedCounter = Counter.builder("auth.token.purge.deleted")
+                .description("삭제한 만료/폐기 refresh token 수")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("auth.token.purge.chunk")
+                .description("refresh token 정리 chunk 하나(조회 + 삭제)에 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${auth.token-purge.interval:3600000}",
+            initialDelayString = "${auth.token-purge.interval:3600000}"
+    )
+    public void purge() {
+        if (!enabled || !schedulerLease.tryAcquire(LEASE_NAME, leaseMillis)) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + leaseMillis - Math.max(pauseMillis, 1000L);
+        long lastId = 0L;
+        long total = 0L;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                long chunkStart = System.nanoTime();
+                List<Long> ids = selectChunk(lastId);
+                int deleted = delete(ids);
+                chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+
+                deletedCounter.increment(deleted);
+                total += deleted;
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+
+                TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            schedulerLease.release(LEASE_NAME);
+        }
+
+        if (total > 0) {
+            log.info("만료/폐기된 refresh token 정리: deleted={}, elapsed={}ms",
+                    total, System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    private List<Long> selectChunk(long lastId) {
+        String sql = "SELECT id FROM refresh_tokens WHERE id > ? AND " + condition + " ORDER BY id LIMIT ?";
+        if (partitioned) {
+            return jdbcTemplate.queryForList(sql, Long.class, lastId, chunkSize);
+        }
+        return jdbcTemplate.queryForList(sql, Long.class, lastId, Timestamp.valueOf(LocalDateTime.now()), chunkSize);
+    }
+
+    /**
+     * primary key로 삭제한다. 조회 이후 상태가 바뀌었을 수 있으므로 조건을 다시 확인한다.
+     * */
+    private int delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = new Object[partitioned ? ids.size() : ids.size() + 1];
+        for (int i = 0; i < ids.size(); i++) {
+            args[i] = ids.get(i);
+        }
+        if (!partitioned) {
+            args[ids.size()] = Timestamp.valueOf(LocalDateTime.now());
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM refresh_tokens WHERE id IN (" + placeholders + ") AND " + condition,
+                args);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.auth.scheduling;
+
+import com.example.auth.config.NodeId;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 여러 서버 중 한 서버만 작업을 실행하도록 DB(scheduler_leases)에 lease를 잡는다.
+ *
+ * - lease는 locked_until까지 유효하고, 그 전에는 같은 서버만 다시 잡을(연장할) 수 있다.
+ * - 서버가 죽어서 해제하지 못해도 locked_until이 지나면 다른 서버가 가져간다.
+ * - 시간은 DB 시간(NOW)을 기준으로 하므로 서버간 시계 차이의 영향을 받지 않는다.
+ * - 확인과 변경을 UPDATE 한번으로 처리하므로 row lock을 오래 잡지 않는다.
+ * */
+@Component
+public class SchedulerLease {
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+
+    public SchedulerLease(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = NodeId.value();
+    }
+
+    /**
+     * lease를 잡거나, 이미 이 서버가 가지고 있으면 연장한다.
+     *
+     * @param name 작업 이름
+     * @param durationMillis lease 유지 시간(ms)
+     * @return lease를 잡았으면 true, 다른 서버가 가지고 있으면 false
+     * */
+    public boolean tryAcquire(String name, long durationMillis) {
+        // 처음 사용하는 작업이면 만료된 lease로 만들어둔다.
+        jdbcTemplate.update(
+                "INSERT IGNORE INTO scheduler_leases (name, owner, locked_until) VALUES (?, '', '1970-01-01')",
+                name);
+
+        int updated = jdbcTemplate.update(
+                "UPDATE scheduler_leases SET owner = ?, locked_until = NOW(3) + INTERVAL ? MICROSECOND " +
+                        "WHERE name = ? AND (locked_until < NOW(3) OR owner = ?)",
+                owner, durationMillis * 1000L, name, owner);
+        return updated == 1;
+    }
+
+    /**
+     * 이 서버가 가진 lease를 해제한다(다음 실행때 어느 서버든 바로 잡을 수 있음)
+     * */
+    public void release(String name) {
+        jdbcTemplate.update(
+                "UPDATE scheduler_leases SET locked_until = NOW(3) WHERE name = ? AND owner = ?",
+                name, owner);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.auth.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 로그아웃 등으로 폐기된 access token의 jti 목록(메모리)
+ *
+ * - 토큰의 만료시간(exp)을 bucket-width 단위 구간으로 나누고, 구간마다 bucket 하나에 jti를 기록한다.
+ * - bucket은 Bloom filter(빠른 부정 확인) + jti fingerprint 집합(정확한 확인)으로 되어있다.
+ *   폐기되지 않은 토큰은 대부분 Bloom filter에서 바로 걸러지고, Bloom filter가 "있을 수도 있음"이라고 할 때만 집합을 확인한다.
+ * - 구간의 토큰이 모두 만료되면 bucket을 통째로 버리므로 메모리는 최근 폐기된 토큰 수에 비례한다.
+ * - 확인(isRevoked)은 lock 없이 배열과 ConcurrentHashMap 읽기만 한다.
+ * - 이 서버의 메모리에만 있으므로 다른 서버에는 InvalidationBus로 전달한다.
+ * */
+@Component
+public class AccessTokenRevocationList {
+    private final long bucketWidthSeconds;
+    private final int expectedPerBucket;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final Supplier<Instant> clock;
+
+    @Autowired
+    public AccessTokenRevocationList(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
+            @Value("${jwt.revocation.bucket-width:60000}") long bucketWidthMillis,
+            @Value("${jwt.revocation.expected-per-bucket:1024}") int expectedPerBucket
+    ) {
+        this(meterRegistry, accessTokenExpiration, bucketWidthMillis, expectedPerBucket, Instant::now);
+    }
+
+    /**
+     * @param clock 현재 시간(테스트에서 시간을 직접 움직일때 사용)
+     * */
+    AccessTokenRevocationList(MeterRegistry meterRegistry, long accessTokenExpiration, long bucketWidthMillis,
+                              int expectedPerBucket, Supplier<Instant> clock) {
+        this.clock = clock;
+        this.bucketWidthSeconds = Math.max(1L, bucketWidthMillis / 1000L);
+        this.expectedPerBucket = Math.max(64, expectedPerBucket);
+        // 아직 만료되지 않은 토큰의 exp 구간 수 + 여유
+        int size = (int) (accessTokenExpiration / 1000L / bucketWidthSeconds) + 2;
+        this.buckets = new AtomicReferenceArray<>(size);
+
+        Gauge.builder("jwt.revocation.size", this, AccessTokenRevocationList::size)
+                .description("메모리에 보관 중인 폐기된 access token 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 토큰을 폐기한다. 이미 만료된 토큰이나 jti가 없는 토큰은 무시한다.
+     *
+     * @param tokenId 토큰의 jti
+     * @param expiresAt 토큰의 만료시간
+     * */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(clock.get())) {
+            return;
+        }
+        long window = expiresAt.getEpochSecond() / bucketWidthSeconds;
+        int index = (int) (window % buckets.length());
+        long hash = hash(tokenId);
+
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.window == window) {
+                bucket.add(hash);
+                return;
+            }
+            if (bucket != null && bucket.window > window) {
+                // 더 최근 구간이 자리를 차지함 = 이 구간의 토큰은 이미 만료됨
+                return;
+            }
+            // 비어있거나 이미 만료된 구간의 bucket이면 새 bucket으로 교체
+            Bucket created = new Bucket(window, expectedPerBucket);
+            if (buckets.compareAndSet(index, bucket, created)) {
+                created.add(hash);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 폐기된 토큰이면 true
+     * */
+    public boolean isRevoked(VerifiedToken token) {
+        return isRevoked(token.tokenId(), token.expiresAt());
+    }
+
+    public boolean isRevoked(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return false;
+        }
+        long window = expiresAt.getEpochSecond() / bucketWidthSeconds;
+        Bucket bucket = buckets.get((int) (window % buckets.length()));
+        return bucket != null && bucket.window == window && bucket.contains(hash(tokenId));
+    }
+
+    /**
+     * 구간의 토큰이 모두 만료된 bucket을 버린다(새 폐기가 없어서 교체되지 않은 bucket의 메모리 회수)
+     * */
+    @Scheduled(
+            fixedDelayString = "${jwt.revocation.bucket-width:60000}",
+            initialDelayString = "${jwt.revocation.bucket-width:60000}"
+    )
+    public void dropExpired() {
+        long currentWindow = clock.get().getEpochSecond() / bucketWidthSeconds;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.window < currentWindow) {
+                buckets.compareAndSet(i, bucket, null);
+            }
+        }
+    }
+
+    private int size() {
+        int total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null) {
+                total += bucket.count.get();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * jti의 64bit hash(FNV-1a + 마무리 mix). 서버가 발급한 UUID만 들어오므로 암호학적 hash는 필요 없다.
+     * */
+    private static long hash(String tokenId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            h ^= tokenId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * exp 구간 하나의 폐기 목록
+     * Bloom filter는 expectedPerBucket개 기준 약 1% 오탐률(entry당 10bit, hash 7개)
+     * 기대보다 많이 들어오면 오탐률만 올라가고, 정확한 판단은 fingerprint 집합이 한다.
+     * */
+    private static final class Bucket {
+        private static final int HASHES = 7;
+
+        final long window;
+        final AtomicLongArray bits;
+        final int bitCount;
+        final Set<Long> fingerprints = ConcurrentHashMap.newKeySet();
+        final AtomicInteger count = new AtomicInteger();
+
+        Bucket(long window, int expected) {
+            this.window = window;
+            this.bitCount = expected * 10;
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void add(long hash) {
+            if (fingerprints.add(hash)) {
+                count.incrementAndGet();
+            }
+            long h2 = mix(hash);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = index(hash + i * h2);
+                long mask = 1L << (bit & 63);
+                int word = bit >>> 6;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean contains(long hash) {
+            long h2 = mix(hash);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = index(hash + i * h2);
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return fingerprints.contains(hash);
+        }
+
+        private int index(long hash) {
+            return (int) Long.remainderUnsigned(hash, bitCount);
+        }
+    }
+}
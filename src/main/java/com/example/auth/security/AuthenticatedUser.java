@@ -0,0 +1,47 @@
+package com.example.auth.security;
+
+import com.example.auth.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWT로 인증된 사용자를 나타내는 principal(SecurityContext에 저장됨)
+ * JPA User Entity 대신 인증에 필요한 값만 담아서, 요청마다 생기는 객체를 줄이고 Hibernate 상태가 남지 않도록 한다.
+ *
+ * @param id 사용자 id
+ * @param email 사용자 이메일
+ * @param role 사용자 권한
+ * */
+public record AuthenticatedUser(
+        Long id,
+        String email,
+        User.Role role
+) implements AuthenticatedPrincipal, Serializable {
+
+    // 권한별로 한번만 만들어두고 모든 요청에서 같은 리스트를 사용한다.
+    private static final Map<User.Role, List<GrantedAuthority>> AUTHORITIES;
+
+    static {
+        Map<User.Role, List<GrantedAuthority>> authorities = new EnumMap<>(User.Role.class);
+        for (User.Role role : User.Role.values()) {
+            authorities.put(role, List.of(new SimpleGrantedAuthority(role.name())));
+        }
+        AUTHORITIES = Collections.unmodifiableMap(authorities);
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return AUTHORITIES.get(role);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.auth.security;
+
+import com.example.auth.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비밀번호 hash/검증을 전용 thread pool에서 실행하는 PasswordEncoder
+ *
+ * bcrypt는 CPU만 사용하는 무거운 작업이므로 요청 스레드에서 바로 실행하면 로그인이 몰릴때 모든 core를 차지해서
+ * 다른 API까지 느려진다. 이 encoder는 core 수로 제한된 pool과 크기가 정해진 큐에서만 실행하고,
+ * 큐가 가득 찼거나 max-wait 안에 끝나지 않으면 기다리지 않고 ServiceOverloadedException(503 + Retry-After)을 던진다.
+ * (virtual thread 모드에서도 이 pool은 platform thread를 사용함)
+ *
+ * 메트릭
+ * - auth.password.queue.size, auth.password.active : 대기중/실행중 작업 수
+ * - auth.password.wait : 큐에서 기다린 시간
+ * - auth.password.work{operation=encode|matches} : hash 계산 시간
+ * - auth.password.rejected{reason=queue_full|deadline} : 거절된 요청 수
+ * */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter queueFullCounter;
+    private final Counter deadlineCounter;
+
+    /**
+     * @param delegate 실제 hash를 계산할 encoder
+     * @param threads 동시에 hash를 계산할 스레드 수(0 이하면 CPU core 수)
+     * @param queueCapacity 대기할 수 있는 작업 수
+     * @param maxWaitMillis 큐 대기 + 계산에 허용하는 최대 시간(ms)
+     * @param retryAfterSeconds 거절시 Retry-After로 알려줄 시간(초)
+     * */
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate,
+            int threads,
+            int queueCapacity,
+            long maxWaitMillis,
+            long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.delegate = delegate;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.work").tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.work").tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullCounter = Counter.builder("auth.password.rejected").tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.deadlineCounter = Counter.builder("auth.password.rejected").tag("reason", "deadline")
+                .register(meterRegistry);
+
+        log.info("비밀번호 hash pool 생성(threads={}, queue={}, max-wait={}ms)", poolSize, queueCapacity, maxWaitMillis);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // hash 문자열의 prefix만 확인하므로 요청 스레드에서 바로 처리
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> work, Timer workTimer) {
+        long submittedAt = System.nanoTime();
+        long deadline = submittedAt + maxWaitNanos;
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                // 큐에서 기다리는 동안 요청 스레드가 이미 포기했다면 계산하지 않음
+                if (startedAt - deadline >= 0) {
+                    throw new CancellationException("deadline exceeded");
+                }
+                try {
+                    return work.call();
+                } finally {
+                    workTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            throw overloaded();
+        }
+
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            future.cancel(false);
+            deadlineCounter.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException) {
+                deadlineCounter.increment();
+                throw overloaded();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds);
+    }
+
+    /**
+     * 스레드 이름을 지정하기 위한 ThreadFactory(thread dump에서 구분하기 위함)
+     * */
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
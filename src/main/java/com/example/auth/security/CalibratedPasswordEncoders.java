@@ -0,0 +1,123 @@
+package com.example.auth.security;
+
+import com.example.auth.config.PasswordHashingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * 설정된 cost로 bcrypt/argon2 DelegatingPasswordEncoder를 만들고, 서버 성능에 맞는 권장 cost를 측정해서 알려준다.
+ *
+ * - hash에는 항상 설정된 cost(bcrypt.strength, argon2.iterations)를 사용한다.
+ *   upgradeEncoding()은 cost를 올리는 방향으로만 다시 hash하므로, 서버마다(또는 재시작마다) 측정한 값을 사용하면
+ *   저장된 hash가 가장 빠른 서버가 측정한 cost로 올라가고 느린 서버는 target-latency를 넘게 된다.
+ *   cost를 바꾸려면 설정을 바꿔서 모든 서버에 같이 배포한다.
+ * - calibrate가 true면 시작시 cost를 한단계씩 올려가며 측정해서 target-latency를 넘지 않는 가장 높은 cost를 로그로 남긴다.
+ *   설정된 cost가 이 서버에서 target-latency를 넘으면 경고한다.
+ * - 새 hash는 "{bcrypt}..." 또는 "{argon2}..." 형식으로 저장된다.
+ *   prefix가 없는 기존 hash($2a$...)는 bcrypt로 검증한다.
+ * - upgradeEncoding()은 저장된 hash의 알고리즘이 다르거나 cost가 설정값보다 낮으면 true를 반환하므로,
+ *   로그인 성공시 새 설정으로 다시 hash해서 저장한다. (cost를 낮추는 방향으로는 다시 hash하지 않음)
+ * */
+@Slf4j
+public final class CalibratedPasswordEncoders {
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password-1234";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    // 권장 cost 측정을 시작하는 값(OWASP 최소 권장값)
+    private static final int BCRYPT_MIN_STRENGTH = 10;
+    private static final int ARGON2_MIN_ITERATIONS = 2;
+
+    private CalibratedPasswordEncoders() {
+    }
+
+    public static PasswordEncoder create(PasswordHashingProperties properties) {
+        String algorithm = properties.getAlgorithm();
+        if (!BCRYPT.equals(algorithm) && !ARGON2.equals(algorithm)) {
+            throw new IllegalArgumentException("지원하지 않는 비밀번호 hash 알고리즘입니다: " + algorithm);
+        }
+
+        PasswordHashingProperties.Bcrypt bcrypt = properties.getBcrypt();
+        PasswordHashingProperties.Argon2 argon2 = properties.getArgon2();
+        IntFunction<PasswordEncoder> argon2Factory = iterations -> new Argon2PasswordEncoder(
+                SALT_LENGTH, HASH_LENGTH, argon2.getParallelism(), argon2.getMemory(), iterations);
+
+        // 새 hash에 사용하는 알고리즘만 측정한다(다른 알고리즘의 기존 hash는 hash에 저장된 cost로 검증)
+        if (BCRYPT.equals(algorithm)) {
+            recommend(properties, "bcrypt.strength", bcrypt.getStrength(),
+                    BCRYPT_MIN_STRENGTH, bcrypt.getMaxStrength(), BCryptPasswordEncoder::new);
+        } else {
+            recommend(properties, "argon2.iterations", argon2.getIterations(),
+                    ARGON2_MIN_ITERATIONS, argon2.getMaxIterations(), argon2Factory);
+        }
+
+        PasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(bcrypt.getStrength());
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcryptEncoder);
+        encoders.put(ARGON2, argon2Factory.apply(argon2.getIterations()));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // prefix 없이 저장된 기존 bcrypt hash
+        encoder.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+
+        log.info("비밀번호 hash 설정(algorithm={}, bcrypt.strength={}, argon2.iterations={}, argon2.memory={}KiB)",
+                algorithm, bcrypt.getStrength(), argon2.getIterations(), argon2.getMemory());
+        return encoder;
+    }
+
+    /**
+     * 설정된 cost의 hash 시간과, target-latency 이하인 가장 높은 cost(권장값)를 측정해서 로그로 남긴다.
+     * 측정 결과는 hash에 사용하지 않는다.
+     * */
+    private static void recommend(PasswordHashingProperties properties, String name, int configured,
+                                  int min, int max, IntFunction<PasswordEncoder> factory) {
+        if (!properties.isCalibrate()) {
+            return;
+        }
+
+        long targetNanos = properties.getTargetLatency() * 1_000_000L;
+        long configuredElapsed = measure(factory.apply(configured), true);
+        if (configuredElapsed > targetNanos) {
+            log.warn("설정된 비밀번호 hash cost가 이 서버에서 target-latency({}ms)를 넘습니다: {}={}, {}ms",
+                    properties.getTargetLatency(), name, configured, configuredElapsed / 1_000_000L);
+        }
+
+        // cost가 올라가면 시간도 늘어나므로 target을 처음 넘는 단계에서 멈춘다.
+        int recommended = min;
+        for (int cost = min; cost <= max; cost++) {
+            long elapsed = cost == configured ? configuredElapsed : measure(factory.apply(cost), false);
+            log.debug("비밀번호 hash 측정: {}={}, {}ms", name, cost, elapsed / 1_000_000L);
+            if (elapsed > targetNanos) {
+                break;
+            }
+            recommended = cost;
+        }
+        log.info("비밀번호 hash 권장 cost(target-latency {}ms): {}={} (설정값 {}, 모든 서버에 같은 값으로 설정)",
+                properties.getTargetLatency(), name, recommended, configured);
+    }
+
+    /**
+     * 2회 측정 중 짧은 시간(처음 측정할때는 JIT warm-up을 위해 한번 더 실행)
+     * */
+    private static long measure(PasswordEncoder encoder, boolean warmUp) {
+        if (warmUp) {
+            encoder.encode(CALIBRATION_PASSWORD);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
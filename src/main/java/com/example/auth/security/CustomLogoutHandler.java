@@ -1,6 +1,9 @@
 package com.example.auth.security;
 
+import com.example.auth.invalidation.InvalidationBus;
 import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.service.RefreshTokenWriteBehind;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -18,6 +21,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomLogoutHandler implements LogoutHandler {
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenWriteBehind refreshTokenWriteBehind;
+    private final InvalidationBus invalidationBus;
 
 
     @Override
@@ -35,15 +40,22 @@ public class CustomLogoutHandler implements LogoutHandler {
         }
 
         // AccessToken을 검증
-        if (!jwtTokenProvider.validateToken(accessToken)) {
+        VerifiedToken verified;
+        try {
+            verified = jwtTokenProvider.verify(accessToken);
+        } catch (JwtException | IllegalArgumentException e) {
             log.warn("유효하지 않은 Access Token으로 로그아웃 처리를 시도했습니다.");
             return;
         }
 
+        // AccessToken은 만료시간까지 사용할 수 없도록 폐기(모든 서버)
+        invalidationBus.accessTokenRevoked(verified.tokenId(), verified.expiresAt());
+
         // RefreshToken을 DB에서 삭제
-        String email = jwtTokenProvider.getEmailFromToken(accessToken);
+        String email = verified.subject();
+        refreshTokenWriteBehind.awaitPersistedForUser(verified.userId());    // 이 사용자의 아직 저장되지 않은 토큰도 삭제되도록 먼저 저장
         int deletedCount = refreshTokenRepository.deleteByUserEmail( email );
-        System.out.println("Deleted Refresh Tokens : " + deletedCount);
+        log.debug("Deleted Refresh Tokens : {}", deletedCount);
 
         // 쿠키 삭제
         Cookie cookie = new Cookie("refreshToken", null);
@@ -16,8 +16,6 @@ public class CustomSuccessLogoutHandler implements LogoutSuccessHandler {
     @Override
     public void onLogoutSuccess(HttpServletRequest request, HttpServletResponse response, @Nullable Authentication authentication) throws IOException, ServletException {
 
-        System.out.println("onLogoutSuccess");
-
         String jsonRes = "{\"success\":true, \"message\":\"로그아웃 처리 완료\"}";
 
         response.setStatus(HttpStatus.OK.value());
@@ -3,11 +3,14 @@ package com.example.auth.security;
 import com.example.auth.entity.User;
 import com.example.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 
 /**
  * Spring Security의 UserDetailsService 인터페이스의 구현체
@@ -18,6 +21,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
 
     /**
      * Spring Security(에서의 AuthencateManager)가 인증 처리를 할때 자동으로 호출하는 메서드
@@ -28,10 +32,27 @@ public class CustomUserDetailsService implements UserDetailsService {
      * */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(()->{
-                   return new UsernameNotFoundException("사용자를 찾을 수 없습니다: " + username);
-                });
+        // 없는 사용자 또는 비활성화된 계정으로 캐시되어 있으면 DB, 비밀번호 검증까지 가지 않고 바로 거부
+        Optional<UserSnapshot> cached = userStatusCache.peekByEmail(username);
+        if (cached != null) {
+            UserSnapshot snapshot = cached.orElseThrow(() ->
+                    new UsernameNotFoundException("사용자를 찾을 수 없습니다: " + username));
+            if (!snapshot.active()) {
+                throw new DisabledException("비활성화된 계정입니다: " + username);
+            }
+        }
+
+        // 비밀번호 검증에는 암호화된 비밀번호가 필요하므로 Entity를 한번만 조회하고, 그 결과로 캐시를 채운다.
+        Optional<User> found = userRepository.findByEmail(username);
+        if (found.isEmpty()) {
+            userStatusCache.putMissing(username);
+            throw new UsernameNotFoundException("사용자를 찾을 수 없습니다: " + username);
+        }
+        User user = found.get();
+        userStatusCache.put(user);
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            throw new DisabledException("비활성화된 계정입니다: " + username);
+        }
 
         // CustomUserDetails 인스턴스를 User 인스턴스를 이용하여 생성하고 이를 반환하도록 한다.
         return new CustomUserDetails(user);
@@ -0,0 +1,306 @@
+package com.example.auth.security;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 우리 서비스의 claim 구성(sub, jti, userId, type, role, ver, iat, exp)에 맞춘 HMAC JWS 생성기
+ *
+ * jjwt builder는 토큰을 만들때마다 header/claim Map을 만들고 Jackson으로 직렬화하지만,
+ * 이 클래스는 고정된 header를 미리 Base64URL로 인코딩해두고 payload를 재사용 버퍼에 바로 쓴다.
+ * Mac 인스턴스도 풀에 담아 재사용한다.
+ *
+ * 만들어지는 토큰은 jjwt builder(signWith(secretKey))로 만든 토큰과 byte 단위로 같다.
+ * (claim 순서, 숫자/문자열 표현, JSON escape 규칙을 jjwt + Jackson과 맞춤)
+ * */
+public class HmacJwsEncoder {
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final SecretKey secretKey;
+    private final String macAlgorithm;
+    private final byte[] encodedHeader;     // base64url({"alg":"HS512"})
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<Buffers> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public HmacJwsEncoder(SecretKey secretKey) {
+        this.secretKey = secretKey;
+        this.macAlgorithm = secretKey.getAlgorithm();
+        this.encodedHeader = base64Url(("{\"alg\":\"" + jwsAlgorithm(macAlgorithm) + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        this.maxPooled = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * 토큰을 생성한다. null인 claim은 jjwt와 마찬가지로 payload에서 빠진다.
+     *
+     * @param subject 사용자 이메일
+     * @param tokenId 토큰 고유 id(jti)
+     * @param userId 사용자 id
+     * @param type 토큰 타입(access, refresh)
+     * @param role 사용자 권한
+     * @param tokenVersion 사용자 token version
+     * @param issuedAtMillis 발행 시간(ms, 초 단위로 잘려서 기록됨)
+     * @param expiresAtMillis 만료 시간(ms, 초 단위로 잘려서 기록됨)
+     * @return 서명된 토큰 문자열
+     * */
+    public String encode(
+            String subject,
+            String tokenId,
+            Long userId,
+            String type,
+            String role,
+            Integer tokenVersion,
+            long issuedAtMillis,
+            long expiresAtMillis
+    ) {
+        Buffers buffers = acquire();
+        try {
+            // 1. payload JSON
+            JsonWriter json = buffers.json;
+            json.reset();
+            json.begin();
+            json.stringField("sub", subject);
+            json.stringField("jti", tokenId);
+            json.numberField("userId", userId);
+            json.stringField("type", type);
+            json.stringField("role", role);
+            json.numberField("ver", tokenVersion == null ? null : tokenVersion.longValue());
+            json.numberField("iat", issuedAtMillis / 1000L);
+            json.numberField("exp", expiresAtMillis / 1000L);
+            json.end();
+
+            // 2. header.payload (서명 대상)
+            ByteArray out = buffers.out;
+            out.reset();
+            out.append(encodedHeader, 0, encodedHeader.length);
+            out.append((byte) '.');
+            out.appendBase64Url(json.bytes(), 0, json.length());
+
+            // 3. 서명
+            Mac mac = buffers.mac;
+            mac.update(out.bytes(), 0, out.length());
+            byte[] signature = mac.doFinal();   // doFinal 이후 Mac은 초기 상태로 돌아감
+            out.append((byte) '.');
+            out.appendBase64Url(signature, 0, signature.length);
+
+            return new String(out.bytes(), 0, out.length(), StandardCharsets.US_ASCII);
+        } finally {
+            release(buffers);
+        }
+    }
+
+    private Buffers acquire() {
+        Buffers buffers = pool.poll();
+        if (buffers != null) {
+            pooled.decrementAndGet();
+            return buffers;
+        }
+        try {
+            Mac mac = Mac.getInstance(macAlgorithm);
+            mac.init(secretKey);
+            return new Buffers(mac);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC을 초기화할 수 없습니다: " + macAlgorithm, e);
+        }
+    }
+
+    private void release(Buffers buffers) {
+        if (pooled.incrementAndGet() <= maxPooled) {
+            pool.offer(buffers);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    private static String jwsAlgorithm(String macAlgorithm) {
+        return switch (macAlgorithm) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> throw new IllegalArgumentException("지원하지 않는 HMAC 알고리즘입니다: " + macAlgorithm);
+        };
+    }
+
+    private static byte[] base64Url(byte[] source) {
+        return Base64.getUrlEncoder().withoutPadding().encode(source);
+    }
+
+    /**
+     * 스레드 하나가 토큰 하나를 만드는 동안 사용하는 버퍼와 Mac
+     * */
+    private static final class Buffers {
+        final Mac mac;
+        final JsonWriter json = new JsonWriter();
+        final ByteArray out = new ByteArray();
+
+        Buffers(Mac mac) {
+            this.mac = mac;
+        }
+    }
+
+    /**
+     * 크기가 늘어나는 byte 버퍼
+     * */
+    private static class ByteArray {
+        private byte[] bytes = new byte[512];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        void append(byte b) {
+            ensure(1);
+            bytes[length++] = b;
+        }
+
+        void append(byte[] src, int offset, int count) {
+            ensure(count);
+            System.arraycopy(src, offset, bytes, length, count);
+            length += count;
+        }
+
+        /**
+         * padding 없는 Base64URL 인코딩
+         * */
+        void appendBase64Url(byte[] src, int offset, int count) {
+            ensure((count + 2) / 3 * 4);
+            int end = offset + count;
+            int i = offset;
+            while (i + 3 <= end) {
+                int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+                bytes[length++] = BASE64URL[(bits >>> 18) & 0x3f];
+                bytes[length++] = BASE64URL[(bits >>> 12) & 0x3f];
+                bytes[length++] = BASE64URL[(bits >>> 6) & 0x3f];
+                bytes[length++] = BASE64URL[bits & 0x3f];
+                i += 3;
+            }
+            int remaining = end - i;
+            if (remaining == 1) {
+                int bits = (src[i] & 0xff) << 16;
+                bytes[length++] = BASE64URL[(bits >>> 18) & 0x3f];
+                bytes[length++] = BASE64URL[(bits >>> 12) & 0x3f];
+            } else if (remaining == 2) {
+                int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+                bytes[length++] = BASE64URL[(bits >>> 18) & 0x3f];
+                bytes[length++] = BASE64URL[(bits >>> 12) & 0x3f];
+                bytes[length++] = BASE64URL[(bits >>> 6) & 0x3f];
+            }
+        }
+    }
+
+    /**
+     * claim 객체 하나만 쓰는 최소한의 JSON writer(Jackson의 출력 형식과 같음)
+     * */
+    private static final class JsonWriter extends ByteArray {
+        private boolean first;
+
+        void begin() {
+            append((byte) '{');
+            first = true;
+        }
+
+        void end() {
+            append((byte) '}');
+        }
+
+        void stringField(String name, String value) {
+            if (value == null) {
+                return;
+            }
+            name(name);
+            string(value);
+        }
+
+        void numberField(String name, Long value) {
+            if (value == null) {
+                return;
+            }
+            name(name);
+            ascii(Long.toString(value));
+        }
+
+        private void name(String name) {
+            if (!first) {
+                append((byte) ',');
+            }
+            first = false;
+            append((byte) '"');
+            ascii(name);
+            append((byte) '"');
+            append((byte) ':');
+        }
+
+        private void ascii(String value) {
+            int count = value.length();
+            ensure(count);
+            for (int i = 0; i < count; i++) {
+                append((byte) value.charAt(i));
+            }
+        }
+
+        private void string(String value) {
+            append((byte) '"');
+            int count = value.length();
+            for (int i = 0; i < count; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    append((byte) '\\');
+                    append((byte) c);
+                } else if (c < 0x20) {
+                    escapeControl(c);
+                } else if (c < 0x80) {
+                    append((byte) c);
+                } else {
+                    // ASCII가 아닌 문자는 UTF-8 그대로 기록(surrogate pair 포함)
+                    int end = Character.isHighSurrogate(c) && i + 1 < count ? i + 2 : i + 1;
+                    byte[] utf8 = value.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                    append(utf8, 0, utf8.length);
+                    i = end - 1;
+                }
+            }
+            append((byte) '"');
+        }
+
+        private void escapeControl(char c) {
+            append((byte) '\\');
+            switch (c) {
+                case '\b' -> append((byte) 'b');
+                case '\f' -> append((byte) 'f');
+                case '\n' -> append((byte) 'n');
+                case '\r' -> append((byte) 'r');
+                case '\t' -> append((byte) 't');
+                default -> {
+                    append((byte) 'u');
+                    append((byte) '0');
+                    append((byte) '0');
+                    append(HEX[(c >> 4) & 0xf]);
+                    append(HEX[c & 0xf]);
+                }
+            }
+        }
+    }
+}
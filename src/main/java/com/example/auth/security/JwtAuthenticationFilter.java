@@ -1,8 +1,9 @@
 package com.example.auth.security;
 
-import ch.qos.logback.core.util.StringUtil;
 import com.example.auth.entity.User;
-import com.example.auth.repository.UserRepository;
+import com.example.auth.metrics.AuthMetrics;
+import com.example.auth.metrics.AuthMetrics.Outcome;
+import com.example.auth.metrics.AuthMetrics.Stage;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -11,29 +12,41 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.swing.plaf.synth.SynthOptionPaneUI;
 import java.io.IOException;
-import java.util.List;
+import java.time.Instant;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private static final String AUTH_MODE_CLAIMS = "claims";
 
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserStatusCache userStatusCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final AccessTokenRevocationList accessTokenRevocationList;
+    private final AuthMetrics authMetrics;
+
+    @Value("${jwt.auth-mode:database}")
+    private String authMode;
+
+    @Value("${jwt.claims-max-staleness:60000}")
+    private long claimsMaxStaleness;
+
+
+    /**
+     * 인증이 필요 없는 route(SecurityConfig의 permitAll과 같은 목록)는 토큰 처리를 하지 않는다.
+     * */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicRoutes.matcher().matches(request);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -41,61 +54,111 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
-        System.out.println("JwtAuthenticationFilter::doFilterInternal()");
-//        log.debug("JwtAuthenticationFilter::doFilterInternal()");
-
         try {
-            // request header에서 토큰 추출하기
-            String token = extractTokenRequest(request);
-            System.out.println(token);
-            if (token != null) {
-                try {
-                    if (jwtTokenProvider.validateToken(token)) {
-                        System.out.println(token);
-                        // 토큰이 일단 유효하다면...
-                        String email = jwtTokenProvider.getEmailFromToken(token);
-                        Long userId = jwtTokenProvider.getUserIdFromToken(token);
-
-                        // 토큰 정보를 활용하여 사용자 객체를 불러옴
-                        User user = userRepository.findById(userId).orElse(null);
-
-                        if (user!=null && user.getIsActive()) {
-                            // 권한 정보를 생성
-                            List<SimpleGrantedAuthority> authorities = List.of(
-                                    new SimpleGrantedAuthority(user.getRole().name())
-                            );
-
-                            // 인증 토큰 생성
-                            UsernamePasswordAuthenticationToken authenticationToken =
-                                    new UsernamePasswordAuthenticationToken(user, null, authorities);
-
-                            // 정보 추가
-                            authenticationToken.setDetails(
-                                    new WebAuthenticationDetailsSource().buildDetails(request)
-                            );
-
-                            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                            System.out.println("doFilterInternal 성공!");
-                        }
-                    }
-                } catch (ExpiredJwtException e) {
-                    // 이러한 에러를 클라이언트에게 보내면 클라이언트가 refresh요청을 하도록 유도
-                    sendErrorResponse(response, HttpStatus.UNAUTHORIZED);
-                } catch (JwtException e) {
-                    // 토큰이 잘못됨
-                    sendErrorResponse(response, HttpStatus.INTERNAL_SERVER_ERROR);
-                } catch (IllegalArgumentException e) {
-                    // request가 잘 못 만들어짐
-                    sendErrorResponse(response, HttpStatus.BAD_REQUEST);
-                }
-            }
+            authenticate(request);
         } catch (Exception e) {
-            // log 출력
+            // 인증 처리중 예상하지 못한 오류(인증 없이 진행)
+            log.warn("JWT 인증 처리중 오류: {}", e.toString());
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 토큰을 검증하고 SecurityContext에 인증 정보를 넣는다.
+     * 단계(토큰 추출, 서명 검증, 사용자 조회, context 설정)마다 소요시간과 결과를 기록한다.
+     * 인증에 실패해도 예외를 던지지 않고 인증 정보 없이 진행한다.
+     * */
+    private void authenticate(HttpServletRequest request) {
+        // 1. request header에서 토큰 추출하기
+        long start = authMetrics.start();
+        String token = extractTokenRequest(request);
+        if (token == null) {
+            authMetrics.record(Stage.FILTER_EXTRACT, Outcome.ABSENT, start);
+            return;
+        }
+        start = authMetrics.record(Stage.FILTER_EXTRACT, Outcome.SUCCESS, start);
+
+        // 2. 토큰 파싱과 서명 검증을 한번에 처리(캐시에 있으면 검증을 건너뜀)
+        VerifiedToken verified;
+        try {
+            verified = verifiedTokenCache.verify(token);
+        } catch (ExpiredJwtException e) {
+            // 인증정보 없이 진행하면 보호된 route는 401을 받게 되고, 클라이언트는 refresh요청을 한다
+            authMetrics.record(Stage.FILTER_VERIFY, Outcome.EXPIRED, start);
+            log.debug("만료된 Access Token: {}", e.getMessage());
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            // 토큰이 잘못됨
+            authMetrics.record(Stage.FILTER_VERIFY, Outcome.INVALID, start);
+            log.debug("유효하지 않은 Access Token: {}", e.getMessage());
+            return;
+        }
+
+        // refresh token으로는 API를 호출할 수 없도록 access token만 허용
+        if (!verified.isAccessToken() || verified.userId() == null) {
+            authMetrics.record(Stage.FILTER_VERIFY, Outcome.INVALID, start);
+            return;
+        }
+
+        // 로그아웃으로 폐기된 토큰(메모리 확인, DB 조회 없음)
+        if (accessTokenRevocationList.isRevoked(verified)) {
+            authMetrics.record(Stage.FILTER_VERIFY, Outcome.REVOKED, start);
+            return;
+        }
+        start = authMetrics.record(Stage.FILTER_VERIFY, Outcome.SUCCESS, start);
+
+        // 3. claims 모드이고 발급된지 얼마 안된 토큰이면 claim만으로, 아니면 사용자 상태를 조회함
+        AuthenticatedUser principal = canTrustClaims(verified)
+                ? userFromClaims(verified)
+                : loadUser(verified);
+        if (principal == null) {
+            authMetrics.record(Stage.FILTER_USER_LOOKUP, Outcome.INACTIVE, start);
+            return;
+        }
+        start = authMetrics.record(Stage.FILTER_USER_LOOKUP, Outcome.SUCCESS, start);
+
+        // 4. 인증 토큰 생성(요청 정보는 필요할때 만들어짐)
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(principal, request)
+        );
+        authMetrics.record(Stage.FILTER_CONTEXT, Outcome.SUCCESS, start);
+    }
+
+    /**
+     * claims 모드에서 DB 조회 없이 토큰의 claim을 그대로 믿어도 되는지 판단한다.
+     * 발급 후 jwt.claims-max-staleness가 지난 토큰은 DB로 다시 확인하므로
+     * 비활성화, 권한 변경은 최대 이 시간 안에 반영된다.
+     * */
+    private boolean canTrustClaims(VerifiedToken verified) {
+        if (!AUTH_MODE_CLAIMS.equals(authMode) || verified.role() == null || verified.issuedAt() == null) {
+            return false;
+        }
+        return verified.issuedAt().plusMillis(claimsMaxStaleness).isAfter(Instant.now());
+    }
+
+    private AuthenticatedUser userFromClaims(VerifiedToken verified) {
+        // 이 서버에서 권한 변경, 비활성화된 사용자는 staleness 시간을 기다리지 않고 바로 거부
+        if (tokenVersionRegistry.isOutdated(verified.userId(), verified.tokenVersion())) {
+            return null;
+        }
+        return new AuthenticatedUser(verified.userId(), verified.subject(), User.Role.valueOf(verified.role()));
+    }
+
+    private AuthenticatedUser loadUser(VerifiedToken verified) {
+        // DB 대신 사용자 상태 캐시를 조회(동시 조회는 한번의 DB 조회로 합쳐짐)
+        UserSnapshot snapshot = userStatusCache.getById(verified.userId()).orElse(null);
+        if (snapshot == null || !snapshot.active()) {
+            return null;
+        }
+
+        // 권한 변경, 비활성화 이전에 발급된 토큰이면 거부
+        if (verified.tokenVersion() != null && verified.tokenVersion() < snapshot.tokenVersion()) {
+            return null;
+        }
+        return new AuthenticatedUser(snapshot.id(), snapshot.email(), snapshot.role());
+    }
+
     private String extractTokenRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
@@ -105,16 +168,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         return null;
     }
-
-    private void sendErrorResponse(
-            HttpServletResponse response,
-            HttpStatus status
-    ) throws IOException {
-        response.setStatus(status.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setCharacterEncoding("UTF-8");
-
-        String jsonResponse = String.format("{\"Error\" : %d}", status.value());
-        response.getWriter().write(jsonResponse);
-    }
 }
@@ -0,0 +1,57 @@
+package com.example.auth.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.List;
+
+/**
+ * JwtAuthenticationFilter가 SecurityContext에 저장하는 인증 객체
+ * 권한은 복사하지 않고 principal이 가진 권한별 리스트를 그대로 반환한다.
+ * 요청 정보는 생성할때 값(remoteAddr, session id)만 읽어두고,
+ * WebAuthenticationDetails는 누군가 getDetails()를 호출할때 처음 한번만 만든다(요청 객체는 참조하지 않음).
+ * */
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+    private final AuthenticatedUser principal;
+    private final String remoteAddress;
+    private final String sessionId;
+
+    public JwtAuthenticationToken(AuthenticatedUser principal, HttpServletRequest request) {
+        super(AuthorityUtils.NO_AUTHORITIES);
+        this.principal = principal;
+        this.remoteAddress = request.getRemoteAddr();
+        HttpSession session = request.getSession(false);
+        this.sessionId = session == null ? null : session.getId();
+        setAuthenticated(true);
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return principal.authorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Object getDetails() {
+        Object details = super.getDetails();
+        if (details == null) {
+            // 동시에 호출되면 같은 값으로 두번 만들 수 있지만 결과는 같다(WebAuthenticationDetails는 final 필드만 가짐)
+            details = new WebAuthenticationDetails(remoteAddress, sessionId);
+            setDetails(details);
+        }
+        return details;
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.auth.security;
+
+import com.example.auth.entity.JwtSigningKey;
+import com.example.auth.repository.JwtSigningKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 비대칭키(ES256, EdDSA) 서명키를 관리하는 클래스
+ *
+ * - jwt.signing.algorithm이 HMAC(기본값)이면 아무 일도 하지 않고, 기존처럼 jwt.secret으로 서명한다.
+ * - 서명키는 DB(jwt_signing_keys)에 보관하여 모든 서버가 같은 키를 사용한다.
+ * - 교체(rotation) 주기가 되면 다음 키를 만들어 publish-ahead 동안 JWKS에 먼저 공개한 뒤 서명에 사용한다.
+ * - 이전 키는 overlap 동안 검증에만 사용되고, 이후 JWKS에서도 빠진다.
+ * - 다른 서비스는 /.well-known/jwks.json의 공개키로 토큰을 직접 검증할 수 있다.
+ * */
+@Slf4j
+@Component
+public class JwtKeyManager {
+    public enum Algorithm { HMAC, ES256, EdDSA }
+
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 5_000L;
+    private static final int MAX_KID_LENGTH = 64;
+    private static final long MAX_UNKNOWN_KIDS = 10_000L;
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+    private final Algorithm algorithm;
+    private final long rotationInterval;
+    private final long publishAhead;
+    private final long overlap;
+    private final SecretKeySpec keyEncryptionKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final AtomicLong lastReloadAt = new AtomicLong();
+    private final Cache<String, Boolean> unknownKids;   // DB를 다시 읽어도 없던 kid(위조된 kid로 DB를 반복해서 읽지 않도록)
+
+    // 서명/검증은 이 스냅샷만 읽는다(교체될때 통째로 바뀜)
+    private volatile KeySet keySet = KeySet.EMPTY;
+    private volatile Instant asymmetricSince;   // 첫 비대칭키를 만든 시간(이전 HMAC 토큰을 받아주는 기간의 시작)
+
+    public JwtKeyManager(
+            JwtSigningKeyRepository jwtSigningKeyRepository,
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.signing.algorithm:HMAC}") Algorithm algorithm,
+            @Value("${jwt.signing.rotation-interval:604800000}") long rotationInterval,
+            @Value("${jwt.signing.publish-ahead:600000}") long publishAhead,
+            @Value("${jwt.signing.overlap:${jwt.refresh-token-expiration}}") long overlap,
+            @Value("${jwt.signing.key-refresh-interval:60000}") long keyRefreshInterval
+    ) {
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        this.algorithm = algorithm;
+        this.rotationInterval = rotationInterval;
+        this.publishAhead = publishAhead;
+        this.overlap = overlap;
+        this.keyEncryptionKey = new SecretKeySpec(sha256(secret.getBytes(StandardCharsets.UTF_8)), "AES");
+        this.unknownKids = Caffeine.newBuilder()
+                .maximumSize(MAX_UNKNOWN_KIDS)
+                .expireAfterWrite(Duration.ofMillis(keyRefreshInterval))
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        if (isAsymmetric()) {
+            refreshKeys();
+            log.info("JWT 비대칭키 서명 사용: algorithm={}, kid={}", algorithm, currentKid());
+        }
+    }
+
+    public boolean isAsymmetric() {
+        return algorithm != Algorithm.HMAC;
+    }
+
+    /**
+     * DB에서 서명키 목록을 다시 읽고, 교체 주기가 되었으면 다음 키를 만든다.
+     * 여러 서버가 동시에 교체하더라도 키가 하나 더 생길 뿐 검증에는 문제가 없다.
+     * */
+    @Scheduled(
+            fixedDelayString = "${jwt.signing.key-refresh-interval:60000}",
+            initialDelayString = "${jwt.signing.key-refresh-interval:60000}"
+    )
+    public void refreshKeys() {
+        if (!isAsymmetric()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<JwtSigningKey> keys = jwtSigningKeyRepository.findUsableKeys(now);
+        if (needsRotation(keys, now)) {
+            rotate(keys, now);
+            keys = jwtSigningKeyRepository.findUsableKeys(now);
+        }
+
+        keySet = KeySet.of(keys.stream().map(this::load).toList());
+        if (asymmetricSince == null) {
+            asymmetricSince = jwtSigningKeyRepository.findFirstByOrderByCreatedAtAsc()
+                    .map(key -> key.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant())
+                    .orElse(null);
+        }
+        lastReloadAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * 비대칭키 서명을 시작한 시간(HMAC 모드이거나 아직 키가 없으면 null)
+     * 이 시간 이후에는 kid 없는(HMAC) 토큰이 발급되지 않는다.
+     * */
+    public Instant asymmetricSince() {
+        return isAsymmetric() ? asymmetricSince : null;
+    }
+
+    /**
+     * 현재 서명에 사용할 키(HMAC 모드이면 null)
+     * */
+    public SigningKey currentSigningKey() {
+        if (!isAsymmetric()) {
+            return null;
+        }
+        return keySet.signingKey(Instant.now());
+    }
+
+    /**
+     * kid에 해당하는 검증용 공개키를 반환한다.
+     * 다른 서버가 방금 만든 키일 수 있으므로 모르는 kid이면 DB를 다시 읽는다(모든 kid 합쳐서 5초에 한번까지만).
+     * 다시 읽어도 없던 kid는 key-refresh-interval 동안 기억하여 같은 kid로는 DB를 읽지 않는다.
+     * (새 키는 publish-ahead 동안 주기적 갱신으로 먼저 읽히므로, 정상 토큰이 여기서 DB를 읽는 경우는 드물다)
+     * */
+    public PublicKey verificationKey(String kid) {
+        PublicKey key = keySet.verificationKeys().get(kid);
+        if (key != null || !isAsymmetric() || kid.length() > MAX_KID_LENGTH || unknownKids.getIfPresent(kid) != null) {
+            return key;
+        }
+
+        long last = lastReloadAt.get();
+        long now = System.currentTimeMillis();
+        if (now - last >= MIN_RELOAD_INTERVAL_MILLIS && lastReloadAt.compareAndSet(last, now)) {
+            refreshKeys();
+            key = keySet.verificationKeys().get(kid);
+            if (key == null) {
+                unknownKids.put(kid, Boolean.TRUE);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * JWKS(RFC 7517) 형식의 공개키 목록
+     * */
+    public Map<String, Object> jwks() {
+        return keySet.jwks();
+    }
+
+    private String currentKid() {
+        SigningKey signingKey = currentSigningKey();
+        return signingKey != null ? signingKey.kid() : null;
+    }
+
+    private boolean needsRotation(List<JwtSigningKey> keys, LocalDateTime now) {
+        if (keys.isEmpty()) {
+            return true;
+        }
+
+        // 가장 최근 키(아직 활성화 전이면 이미 다음 키가 준비된 상태)
+        JwtSigningKey newest = keys.get(0);
+        if (newest.getActivatesAt().isAfter(now)) {
+            return false;
+        }
+        if (!algorithm.name().equals(newest.getAlgorithm())) {
+            return true;
+        }
+        return !newest.getActivatesAt().plusNanos(millisToNanos(rotationInterval - publishAhead)).isAfter(now);
+    }
+
+    private void rotate(List<JwtSigningKey> keys, LocalDateTime now) {
+        // 첫번째 키는 바로 사용, 이후 키는 publish-ahead 동안 JWKS에 먼저 공개됨
+        LocalDateTime activatesAt = keys.isEmpty() ? now : now.plusNanos(millisToNanos(publishAhead));
+        KeyPair keyPair = generateKeyPair();
+
+        JwtSigningKey newKey = JwtSigningKey.builder()
+                .kid(UUID.randomUUID().toString())
+                .algorithm(algorithm.name())
+                .publicKey(keyPair.getPublic().getEncoded())
+                .privateKey(encrypt(keyPair.getPrivate().getEncoded()))
+                .createdAt(now)
+                .activatesAt(activatesAt)
+                .build();
+
+        // 이전 키들은 새 키가 활성화된 뒤 overlap 동안만 검증에 사용
+        List<JwtSigningKey> changed = new ArrayList<>();
+        for (JwtSigningKey key : keys) {
+            if (key.getExpiresAt() == null) {
+                key.setExpiresAt(activatesAt.plusNanos(millisToNanos(overlap)));
+                changed.add(key);
+            }
+        }
+        changed.add(newKey);
+        jwtSigningKeyRepository.saveAll(changed);
+
+        log.info("JWT 서명키 교체 예약: kid={}, activatesAt={}", newKey.getKid(), activatesAt);
+    }
+
+    private KeyPair generateKeyPair() {
+        try {
+            if (algorithm == Algorithm.ES256) {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"), secureRandom);
+                return generator.generateKeyPair();
+            }
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT 서명키를 생성할 수 없습니다", e);
+        }
+    }
+
+    private LoadedKey load(JwtSigningKey entity) {
+        try {
+            Algorithm keyAlgorithm = Algorithm.valueOf(entity.getAlgorithm());
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm == Algorithm.ES256 ? "EC" : "EdDSA");
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(entity.getPublicKey()));
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decrypt(entity.getPrivateKey())));
+
+            return new LoadedKey(
+                    new SigningKey(
+                            entity.getKid(),
+                            privateKey,
+                            keyAlgorithm == Algorithm.ES256 ? Jwts.SIG.ES256 : Jwts.SIG.EdDSA
+                    ),
+                    publicKey,
+                    toJwk(entity.getKid(), keyAlgorithm, publicKey),
+                    entity.getActivatesAt().atZone(ZoneId.systemDefault()).toInstant()
+            );
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT 서명키를 읽을 수 없습니다: kid=" + entity.getKid(), e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, Algorithm algorithm, PublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.name());
+
+        if (algorithm == Algorithm.ES256) {
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsigned(ecPublicKey.getW().getAffineX(), 32)));
+            jwk.put("y", encoder.encodeToString(unsigned(ecPublicKey.getW().getAffineY(), 32)));
+        } else {
+            // X.509 인코딩된 Ed25519 공개키의 마지막 32바이트가 실제 키 값
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        byte[] result = new byte[length];
+        int copyLength = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copyLength, result, length - copyLength, copyLength);
+        return result;
+    }
+
+    private byte[] encrypt(byte[] plain) {
+        try {
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(plain);
+            return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT 서명키를 암호화할 수 없습니다", e);
+        }
+    }
+
+    private byte[] decrypt(byte[] stored) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, stored, 0, GCM_IV_LENGTH));
+        return cipher.doFinal(stored, GCM_IV_LENGTH, stored.length - GCM_IV_LENGTH);
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+
+    private static long millisToNanos(long millis) {
+        return millis * 1_000_000L;
+    }
+
+    /**
+     * 서명에 사용할 개인키와 kid
+     * */
+    public record SigningKey(String kid, PrivateKey privateKey, SignatureAlgorithm jwsAlgorithm) {
+    }
+
+    private record LoadedKey(SigningKey signingKey, PublicKey publicKey, Map<String, Object> jwk, Instant activatesAt) {
+    }
+
+    /**
+     * 한 시점의 서명키 목록(불변), 최근에 활성화되는 순서로 정렬되어 있음
+     * */
+    private record KeySet(List<LoadedKey> keys, Map<String, PublicKey> verificationKeys, Map<String, Object> jwks) {
+        static final KeySet EMPTY = of(List.of());
+
+        static KeySet of(List<LoadedKey> keys) {
+            Map<String, PublicKey> verificationKeys = new HashMap<>();
+            List<Map<String, Object>> jwkList = new ArrayList<>();
+            for (LoadedKey key : keys) {
+                verificationKeys.put(key.signingKey().kid(), key.publicKey());
+                jwkList.add(key.jwk());
+            }
+            return new KeySet(List.copyOf(keys), Map.copyOf(verificationKeys), Map.of("keys", List.copyOf(jwkList)));
+        }
+
+        SigningKey signingKey(Instant now) {
+            for (LoadedKey key : keys) {
+                if (!key.activatesAt().isAfter(now)) {
+                    return key.signingKey();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -1,84 +1,178 @@
 package com.example.auth.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwt;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
-import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
     private final SecretKey secretKey;
+    private final JwtKeyManager jwtKeyManager;
+    private final HmacJwsEncoder hmacJwsEncoder;    // HMAC 모드의 토큰 발급용
+    private final JwtParser jwtParser;   // thread-safe하므로 한번만 생성해서 재사용한다
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
-            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration
+            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration,
+            JwtKeyManager jwtKeyManager
     ) {
         // 문자열 secret key를 SecretKey 인스턴스로 변환(생성)
         secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtKeyManager = jwtKeyManager;
+        hmacJwsEncoder = new HmacJwsEncoder(secretKey);
+        jwtParser = Jwts.parser()
+                .keyLocator(new VerificationKeyLocator())  // 서명 검증(kid에 따라 검증키 선택)
+                .build();               // 분석객체
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = refreshTokenExpiration;
     }
 
 
     /**
-     * User의 email과 id를 받아서 AccessToken을 생성하는 메소드
+     * User의 email, id, 권한, token version을 받아서 AccessToken을 생성하는 메소드
+     * 권한과 token version을 claim으로 넣어두면 claims 인증 모드에서 DB 조회 없이 인증할 수 있다.
+     * 로그아웃시 토큰 하나만 폐기할 수 있도록 jti(UUID)를 넣는다(AccessTokenRevocationList).
      *
      * @param userEmail 사용자 이메일, userId 데이터베이스에 저장된 사용자 id
+     * @param role 사용자 권한(ROLE_USER, ROLE_ADMIN)
+     * @param tokenVersion 사용자의 현재 token version
      * @return access token (문자열)
      * */
-    public String generateAccessToken(String userEmail, Long userId) {
-        Date now = new Date();
+    public String generateAccessToken(String userEmail, Long userId, String role, Integer tokenVersion) {
+        long now = System.currentTimeMillis();
         // 만료 시간을 현재시간 + accessTokenExpiration으로 설정함
-        Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
+        long expiry = now + accessTokenExpiration;
 
-        return Jwts.builder()
+        String tokenId = UUID.randomUUID().toString();
+
+        JwtKeyManager.SigningKey signingKey = jwtKeyManager.currentSigningKey();
+        if (signingKey == null) {
+            // HMAC 모드: jjwt builder와 같은 토큰을 Map/Jackson 없이 생성
+            return hmacJwsEncoder.encode(userEmail, tokenId, userId, VerifiedToken.TYPE_ACCESS, role, tokenVersion, now, expiry);
+        }
+
+        return sign(Jwts.builder()
                 .subject(userEmail)             // token의 주체(사용자 이메일)
+                .id(tokenId)                    // 토큰 고유 id(폐기용)
                 .claim("userId", userId)      // 사용자 id 추가
-                .claim("type", "access")    // type은 access token
-                .issuedAt(now)                  // 발행 시간
-                .expiration(expiryDate)         // 만료 시간
-                .signWith(secretKey)            // 암호화
-                .compact();                     // 생성
+                .claim("type", VerifiedToken.TYPE_ACCESS)    // type은 access token
+                .claim("role", role)            // 사용자 권한
+                .claim("ver", tokenVersion)     // 사용자 token version
+                .issuedAt(new Date(now))        // 발행 시간
+                .expiration(new Date(expiry)), signingKey);  // 만료 시간, 암호화 후 생성
     }
 
     /**
      * User의 email를 받아서 RefreshToken을 생성하는 메소드
+     * 같은 사용자가 같은 시간(초)에 로그인해도 토큰이 겹치지 않도록 jti(UUID)를 넣는다.
+     * (DB에는 토큰의 digest가 unique key로 저장됨)
      *
      * @param userEmail 사용자 이메일
      * @return refresh token (문자열)
      * */
     public String generateRefreshToken(String userEmail) {
-        Date now = new Date();
-        // 만료 시간을 현재시간 + accessTokenExpiration으로 설정함
-        Date expiryDate = new Date(now.getTime() + refreshTokenExpiration);
+        long now = System.currentTimeMillis();
+        // 만료 시간을 현재시간 + refreshTokenExpiration으로 설정함
+        long expiry = now + refreshTokenExpiration;
+
+        String tokenId = UUID.randomUUID().toString();
 
-        return Jwts.builder()
+        JwtKeyManager.SigningKey signingKey = jwtKeyManager.currentSigningKey();
+        if (signingKey == null) {
+            return hmacJwsEncoder.encode(userEmail, tokenId, null, VerifiedToken.TYPE_REFRESH, null, null, now, expiry);
+        }
+
+        return sign(Jwts.builder()
                 .subject(userEmail)
-                .claim("type", "refresh")
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey)
+                .id(tokenId)
+                .claim("type", VerifiedToken.TYPE_REFRESH)
+                .issuedAt(new Date(now))
+                .expiration(new Date(expiry)), signingKey);
+    }
+
+    /**
+     * 비대칭키 서명 모드에서 현재 서명키(kid header 포함)로 서명한다.
+     * */
+    private String sign(JwtBuilder builder, JwtKeyManager.SigningKey signingKey) {
+        return builder
+                .header().keyId(signingKey.kid()).and()
+                .signWith(signingKey.privateKey(), signingKey.jwsAlgorithm())
                 .compact();
     }
 
     private Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)  // 서명 검증
-                .build()                // 분석객체
-                .parseSignedClaims(token)   // 토큰 주입
-                .getPayload();          // claim 데이터를 뽑아냄(Claims 인스턴스)
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);   // 토큰 주입
+        Claims claims = jws.getPayload();          // claim 데이터를 뽑아냄(Claims 인스턴스)
+        if (jws.getHeader().getKeyId() == null) {
+            checkLegacyHmacToken(claims);
+        }
+        return claims;
+    }
+
+    /**
+     * 비대칭키 모드에서 kid 없는(jwt.secret으로 서명된) 토큰은 전환 전에 발급되었고,
+     * 그 토큰 종류의 만료시간이 전환 후 아직 지나지 않은 경우에만 받아준다.
+     * (access token은 access-token-expiration, refresh token은 refresh-token-expiration 동안)
+     * */
+    private void checkLegacyHmacToken(Claims claims) {
+        Instant since = jwtKeyManager.asymmetricSince();
+        if (since == null) {
+            return;     // HMAC 모드
+        }
+        long lifetime = VerifiedToken.TYPE_REFRESH.equals(claims.get("type", String.class))
+                ? refreshTokenExpiration : accessTokenExpiration;
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null || !issuedAt.toInstant().isBefore(since)
+                || !Instant.now().isBefore(since.plusMillis(lifetime))) {
+            throw new UnsupportedJwtException("비대칭키 서명으로 전환된 후에는 kid 없는 토큰을 사용할 수 없습니다");
+        }
+    }
+
+    /**
+     * 토큰을 한번만 파싱/서명 검증하고 필요한 claim을 모두 담은 VerifiedToken을 반환한다.
+     * validateToken, getEmailFromToken, getUserIdFromToken을 연달아 호출하면 매번 서명 검증을 다시 하므로
+     * 요청마다 토큰을 다루는 곳에서는 이 메소드를 사용한다.
+     *
+     * @param token 검증할 토큰 문자열
+     * @return 검증된 claim 정보
+     * @throws JwtException 서명이 올바르지 않거나 만료된 토큰인 경우(ExpiredJwtException 포함)
+     * @throws IllegalArgumentException 토큰 문자열이 비어있는 경우
+     * */
+    public VerifiedToken verify(String token) {
+        Claims claims = parseToken(token);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getId(),
+                claims.get("userId", Long.class),
+                claims.get("type", String.class),
+                claims.get("role", String.class),
+                claims.get("ver", Integer.class),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                expiration != null ? expiration.toInstant() : null
+        );
     }
 
     // email 추출
@@ -108,8 +202,39 @@ public class JwtTokenProvider {
         }
     }
 
+    public long getAccessTokenExpiration() {
+        return accessTokenExpiration;
+    }
+
     // Refresh Token 만료 시간 계산
     public Date getRefreshTokenExpiryDate() {
         return new Date(System.currentTimeMillis() + refreshTokenExpiration);
     }
+
+    /**
+     * JWT header의 kid로 검증키를 찾는다.
+     * kid가 없으면 jwt.secret(HMAC)으로 서명된 토큰이다.
+     * 비대칭키 모드로 바꾼 뒤에는 전환 전에 발급된 토큰이 만료될때까지만 검증한다(checkLegacyHmacToken)
+     * */
+    private class VerificationKeyLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                Instant since = jwtKeyManager.asymmetricSince();
+                if (since != null && !Instant.now().isBefore(
+                        since.plusMillis(Math.max(accessTokenExpiration, refreshTokenExpiration)))) {
+                    // 전환 전 토큰이 모두 만료됨, 서명 검증 전에 거절
+                    throw new UnsupportedJwtException("비대칭키 서명으로 전환된 후에는 kid 없는 토큰을 사용할 수 없습니다");
+                }
+                return secretKey;
+            }
+
+            PublicKey publicKey = jwtKeyManager.verificationKey(kid);
+            if (publicKey == null) {
+                throw new UnsupportedJwtException("알 수 없는 서명키입니다: kid=" + kid);
+            }
+            return publicKey;
+        }
+    }
 }
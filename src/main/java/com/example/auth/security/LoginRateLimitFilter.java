@@ -0,0 +1,241 @@
+package com.example.auth.security;
+
+import com.example.auth.dto.RequestLogin;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인, 토큰 재발급 요청의 속도 제한 필터
+ *
+ * 1. client IP별 제한 : 요청 body를 읽기 전에 확인하므로 거절된 요청은 body 파싱, DB 조회, 비밀번호 검증을 하지 않는다.
+ * 2. 이메일별 제한(로그인만) : 한 계정에 대한 여러 IP의 비밀번호 대입을 막는다.
+ *    body에서 이메일을 읽은 뒤 controller가 다시 읽을 수 있도록 body를 보관한 request로 넘긴다.
+ *    body가 MAX_BODY_SIZE보다 크면 413(Payload Too Large)으로 거절한다.
+ *    (이메일을 읽지 못한 채 controller로 넘기면 공백 등으로 body를 키워서 이메일별 제한을 피할 수 있음)
+ *
+ * 제한을 넘으면 429(Too Many Requests)와 Retry-After(초)로 응답한다.
+ * client IP는 request.getRemoteAddr()를 사용한다. proxy(load balancer) 뒤에서는 server.forward-headers-strategy(native)로
+ * server.tomcat.remoteip.internal-proxies에 등록된 proxy가 보낸 X-Forwarded-For만 client IP로 바꾼다(application.yaml).
+ * */
+@Slf4j
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final int MAX_BODY_SIZE = 4096;
+
+    private static final RequestMatcher LOGIN = anyOf(
+            "/api/login", "/api/old_login", "/api/loginex");
+    private static final RequestMatcher REFRESH = anyOf("/api/refresh");
+
+    private final boolean enabled;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter emailLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public LoginRateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.ip.per-minute:60}") long ipPerMinute,
+            @Value("${auth.rate-limit.ip.burst:20}") long ipBurst,
+            @Value("${auth.rate-limit.email.per-minute:10}") long emailPerMinute,
+            @Value("${auth.rate-limit.email.burst:5}") long emailBurst,
+            @Value("${auth.rate-limit.max-keys:100000}") long maxKeys
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimiter = new RateLimiter(ipPerMinute, ipBurst, maxKeys);
+        this.emailLimiter = new RateLimiter(emailPerMinute, emailBurst, maxKeys);
+
+        this.ipRejected = Counter.builder("auth.rate-limit.rejected").tag("key", "ip").register(meterRegistry);
+        this.emailRejected = Counter.builder("auth.rate-limit.rejected").tag("key", "email").register(meterRegistry);
+        Gauge.builder("auth.rate-limit.keys", ipLimiter, RateLimiter::estimatedSize).tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate-limit.keys", emailLimiter, RateLimiter::estimatedSize).tag("key", "email")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !(LOGIN.matches(request) || REFRESH.matches(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        // 1. IP별 제한(body를 읽지 않음)
+        long waitNanos = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            ipRejected.increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        // 2. 이메일별 제한(로그인 요청만)
+        if (LOGIN.matches(request)) {
+            // Content-Length가 크면 body를 읽지 않고, chunked 등 길이를 모르면 max + 1 byte까지만 읽고 거절한다.
+            CachedBodyRequest cached = request.getContentLengthLong() > MAX_BODY_SIZE
+                    ? null : CachedBodyRequest.of(request, MAX_BODY_SIZE);
+            if (cached == null) {
+                tooLarge(response);
+                return;
+            }
+            String email = extractEmail(cached.body());
+            if (email != null) {
+                waitNanos = emailLimiter.tryAcquire(email);
+                if (waitNanos > 0) {
+                    emailRejected.increment();
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+            request = cached;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * AuthService와 같은 방식으로 정규화한 이메일(읽을 수 없으면 null, 검증은 controller에서 처리)
+     * */
+    private String extractEmail(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            RequestLogin login = objectMapper.readValue(body, RequestLogin.class);
+            String email = login.getEmail();
+            return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());    // 429
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds(waitNanos)));
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write("{\"success\":false, \"message\":\"요청이 너무 많습니다. 잠시 후 다시 시도해주세요.\"}");
+    }
+
+    private static void tooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());     // 413
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write("{\"success\":false, \"message\":\"요청 내용이 너무 큽니다.\"}");
+    }
+
+    /**
+     * @return 남은 시간을 올림한 초(최소 1초)
+     * */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    private static RequestMatcher anyOf(String... patterns) {
+        PathPatternRequestMatcher.Builder builder = PathPatternRequestMatcher.withDefaults();
+        RequestMatcher[] matchers = new RequestMatcher[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            matchers[i] = builder.matcher(HttpMethod.POST, patterns[i]);
+        }
+        return new OrRequestMatcher(matchers);
+    }
+
+    /**
+     * body 전체(최대 max byte)를 미리 읽어 보관하고, 이후 getInputStream()/getReader()에서 다시 돌려주는 request
+     * */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * @return body를 보관한 request, body가 max보다 크면 null
+         * */
+        static CachedBodyRequest of(HttpServletRequest request, int max) throws IOException {
+            byte[] body = request.getInputStream().readNBytes(max + 1);
+            return body.length <= max ? new CachedBodyRequest(request, body) : null;
+        }
+
+        byte[] body() {
+            return body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream cached = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return cached.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // body 전체가 메모리에 있으므로 바로 읽을 수 있음
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return cached.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return cached.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
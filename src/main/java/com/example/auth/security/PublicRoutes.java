@@ -0,0 +1,48 @@
+package com.example.auth.security;
+
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 인증 없이 접근할 수 있는 route 목록
+ *
+ * SecurityConfig의 permitAll 설정과 JwtAuthenticationFilter의 필터 생략 판단이 같은 matcher를 사용하므로
+ * route를 추가/삭제할때는 여기만 수정하면 된다.
+ * 패턴은 애플리케이션 시작시 한번만 PathPattern으로 컴파일된다.
+ * */
+public final class PublicRoutes {
+    private static final String[] PATTERNS = {
+            "/api/health",
+            "/api/signup",
+            "/api/login",
+            "/api/refresh",
+            "/api/loginex",
+            "/api/oauth/kakao/**",
+            "/.well-known/jwks.json",   // 토큰 검증용 공개키
+            "/actuator/health",         // health check(management port에서만 제공)
+            "/actuator/prometheus",     // 메트릭 수집(management port에서만 제공, management.server.address)
+    };
+
+    private static final RequestMatcher MATCHER = new OrRequestMatcher(compile(PATTERNS));
+
+    private PublicRoutes() {
+    }
+
+    /**
+     * @return 인증 없이 접근할 수 있는 route의 matcher
+     * */
+    public static RequestMatcher matcher() {
+        return MATCHER;
+    }
+
+    private static List<RequestMatcher> compile(String[] patterns) {
+        PathPatternRequestMatcher.Builder builder = PathPatternRequestMatcher.withDefaults();
+        return Arrays.stream(patterns)
+                .map(pattern -> (RequestMatcher) builder.matcher(pattern))
+                .toList();
+    }
+}
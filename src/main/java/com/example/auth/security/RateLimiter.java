@@ -0,0 +1,80 @@
+package com.example.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * key별 token bucket 속도 제한기(GCRA : Generic Cell Rate Algorithm)
+ *
+ * bucket 하나는 "다음 요청이 허용되는 이론적 시간(TAT)" 하나만 AtomicLong으로 가지고 있으며,
+ * 허용/거절은 CAS 한번으로 결정되므로 lock이 없다.
+ * key는 Caffeine에 보관한다.
+ * - idle 시간(bucket이 다시 가득 차는 시간)이 지난 key 제거 : 가득 찬 bucket과 같은 상태이므로 결과가 달라지지 않는다.
+ * - 최대 개수(maxKeys)를 넘어서 제거 : 아직 비어있는 bucket도 제거될 수 있으며, 이때 그 key의 제한이 초기화된다.
+ *   서로 다른 key를 대량으로 보내면 제한 중인 key를 밀어낼 수 있으므로 maxKeys는 bucket이 다시 가득 차는 시간 동안
+ *   들어올 수 있는 key 수보다 크게 잡는다(이메일별 제한은 IP별 제한을 통과한 요청만 key를 만듦).
+ * */
+public class RateLimiter {
+    private final long intervalNanos;       // token 1개가 채워지는 시간
+    private final long burstNanos;          // bucket 크기만큼의 시간
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param permitsPerMinute 분당 허용 요청 수
+     * @param burst 한번에 허용하는 최대 요청 수(bucket 크기)
+     * @param maxKeys 보관할 최대 key 수
+     * */
+    public RateLimiter(long permitsPerMinute, long burst, long maxKeys) {
+        this(permitsPerMinute, burst, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock 현재 시간(ns, 테스트에서 시간을 직접 움직일때 사용)
+     * */
+    RateLimiter(long permitsPerMinute, long burst, long maxKeys, LongSupplier nanoClock) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute, burst는 0보다 커야 합니다");
+        }
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstNanos = intervalNanos * burst;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .ticker(nanoClock::getAsLong)
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    /**
+     * 요청 하나를 허용할지 결정한다.
+     *
+     * @param key 제한 대상(IP, 이메일 등)
+     * @return 허용되면 0, 거절되면 다시 시도할 수 있을때까지 남은 시간(ns)
+     * */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long allowAt = next - burstNanos;
+            if (allowAt - now > 0) {
+                return allowAt - now;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    public long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.auth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 토큰 문자열의 SHA-256 digest
+ * 토큰 원본 대신 고정 길이(32 byte) digest를 캐시 key, DB 조회 key로 사용한다.
+ *
+ * MessageDigest 인스턴스는 HmacJwsEncoder의 Mac과 같이 풀에 담아 재사용한다.
+ * (요청마다 새 virtual thread가 만들어지므로 ThreadLocal에 두면 재사용되지 않고 요청마다 새로 만들어진다)
+ * */
+public final class TokenDigest {
+    public static final int LENGTH = 32;
+
+    private static final int MAX_POOLED = Runtime.getRuntime().availableProcessors() * 2;
+    private static final ConcurrentLinkedQueue<MessageDigest> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private TokenDigest() {
+    }
+
+    /**
+     * @param token 토큰 문자열(JWT는 ASCII 문자만 사용)
+     * @return SHA-256 digest(32 byte), DB에서는 UNHEX(SHA2(token, 256))과 같은 값
+     * */
+    public static byte[] sha256(String token) {
+        MessageDigest digest = acquire();
+        try {
+            return digest.digest(token.getBytes(StandardCharsets.UTF_8));   // digest 이후 초기 상태로 돌아감
+        } finally {
+            release(digest);
+        }
+    }
+
+    private static MessageDigest acquire() {
+        MessageDigest digest = POOL.poll();
+        if (digest != null) {
+            POOLED.decrementAndGet();
+            return digest;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+
+    private static void release(MessageDigest digest) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(digest);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+}
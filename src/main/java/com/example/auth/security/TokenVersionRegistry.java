@@ -0,0 +1,51 @@
+package com.example.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 권한 변경, 비활성화로 token version이 올라간 사용자를 기억해두는 저장소
+ * claims 인증 모드에서는 DB를 조회하지 않으므로, 이 서버에서 변경된 사용자는 여기서 바로 걸러낸다.
+ * 이전 version의 access token은 모두 만료시간이 지나면 사라지므로 항목도 access token 만료시간 후에 제거한다.
+ * */
+@Component
+public class TokenVersionRegistry {
+    private final Cache<Long, Integer> minimumVersions;
+
+    public TokenVersionRegistry(
+            @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
+            @Value("${jwt.token-version.max-size:100000}") long maxSize
+    ) {
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+                .build();
+    }
+
+    /**
+     * 해당 사용자의 token version이 올라갔음을 기록한다.
+     *
+     * @param userId 사용자 id
+     * @param tokenVersion 변경 후의 token version(이보다 낮은 version의 토큰은 거부됨)
+     * */
+    public void update(Long userId, int tokenVersion) {
+        minimumVersions.asMap().merge(userId, tokenVersion, Math::max);
+    }
+
+    /**
+     * 토큰의 version이 이미 폐기된 version인지 확인
+     *
+     * @return 폐기된 version이면 true
+     * */
+    public boolean isOutdated(Long userId, Integer tokenVersion) {
+        Integer minimum = minimumVersions.getIfPresent(userId);
+        if (minimum == null) {
+            return false;
+        }
+        return tokenVersion == null || tokenVersion < minimum;
+    }
+}
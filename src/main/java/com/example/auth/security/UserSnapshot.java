@@ -0,0 +1,30 @@
+package com.example.auth.security;
+
+import com.example.auth.entity.User;
+
+/**
+ * 인증에 필요한 사용자 정보만 담은 불변 객체(UserStatusCache에 보관됨)
+ *
+ * @param id 사용자 id
+ * @param email 사용자 이메일
+ * @param role 사용자 권한
+ * @param active 계정 활성화 여부
+ * @param tokenVersion 사용자의 현재 token version
+ * */
+public record UserSnapshot(
+        Long id,
+        String email,
+        User.Role role,
+        boolean active,
+        int tokenVersion
+) {
+    public static UserSnapshot from(User user) {
+        return new UserSnapshot(
+                user.getId(),
+                user.getEmail(),
+                user.getRole(),
+                Boolean.TRUE.equals(user.getIsActive()),
+                user.getTokenVersion() == null ? 0 : user.getTokenVersion()
+        );
+    }
+}
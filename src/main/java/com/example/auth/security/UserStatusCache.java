@@ -0,0 +1,113 @@
+package com.example.auth.security;
+
+import com.example.auth.entity.User;
+import com.example.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 사용자 상태(id, 권한, 활성화 여부, token version)를 메모리에 잠시 보관하는 캐시
+ * JwtAuthenticationFilter와 CustomUserDetailsService가 요청마다 DB를 조회하지 않도록 한다.
+ *
+ * - 같은 사용자에 대한 동시 조회는 한번의 DB 조회로 합쳐진다(Caffeine LoadingCache)
+ * - 존재하지 않는 사용자도 Optional.empty()로 캐시하여 반복 조회를 막는다
+ * - 사용자 정보를 변경하는 곳(회원가입, 카카오 로그인, 관리자 변경)에서는 반드시 invalidate를 호출해야 한다
+ * */
+@Component
+public class UserStatusCache {
+    private final LoadingCache<Long, Optional<UserSnapshot>> byId;
+    private final LoadingCache<String, Optional<UserSnapshot>> byEmail;
+
+    public UserStatusCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.user-cache.ttl:30000}") long ttl,
+            @Value("${auth.user-cache.max-size:50000}") long maxSize
+    ) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build(id -> userRepository.findById(id).map(UserSnapshot::from));
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build(email -> userRepository.findByEmail(email).map(UserSnapshot::from));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "auth.user-status.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "auth.user-status.by-email");
+    }
+
+    public Optional<UserSnapshot> getById(Long userId) {
+        return byId.get(userId);
+    }
+
+    public Optional<UserSnapshot> getByEmail(String email) {
+        return byEmail.get(email);
+    }
+
+    /**
+     * 캐시에 있는 항목만 반환한다(없어도 DB를 조회하지 않음)
+     *
+     * @return 캐시에 없으면 null, 없는 사용자로 캐시되어 있으면 Optional.empty()
+     * */
+    public Optional<UserSnapshot> peekByEmail(String email) {
+        return byEmail.getIfPresent(email);
+    }
+
+    /**
+     * 다른 곳에서 이미 조회한 사용자를 캐시에 넣는다(같은 사용자를 다시 조회하지 않도록)
+     * */
+    public void put(User user) {
+        Optional<UserSnapshot> snapshot = Optional.of(UserSnapshot.from(user));
+        byId.put(user.getId(), snapshot);
+        byEmail.put(user.getEmail(), snapshot);
+    }
+
+    /**
+     * 존재하지 않는 이메일을 캐시에 넣는다.
+     * */
+    public void putMissing(String email) {
+        byEmail.put(email, Optional.empty());
+    }
+
+    /**
+     * 변경된 사용자의 캐시 항목을 제거한다.
+     * 트랜잭션 안에서 호출되면 커밋 이후에 한번 더 제거하여, 커밋 전에 다른 요청이 읽어간 이전 값이 남지 않도록 한다.
+     * */
+    public void invalidate(User user) {
+        invalidate(user.getId(), user.getEmail());
+    }
+
+    public void invalidate(Long userId, String email) {
+        evict(userId, email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId, email);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId, String email) {
+        if (userId != null) {
+            byId.invalidate(userId);
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.auth.security;
+
+import java.time.Instant;
+
+/**
+ * 서명 검증이 끝난 JWT의 claim 정보
+ * 한번의 파싱/검증 결과를 담아두고 필터, 서비스에서 재사용한다. (불변 객체)
+ *
+ * @param subject 토큰의 주체(사용자 이메일)
+ * @param tokenId 토큰 고유 id(jti, 이전에 발급된 access token에는 없으므로 null)
+ * @param userId 사용자 id (refresh token에는 없으므로 null)
+ * @param type 토큰 타입(access, refresh)
+ * @param role 사용자 권한(access token에만 있음)
+ * @param tokenVersion 발급 당시 사용자의 token version(access token에만 있음)
+ * @param issuedAt 발행 시간
+ * @param expiresAt 만료 시간
+ * */
+public record VerifiedToken(
+        String subject,
+        String tokenId,
+        Long userId,
+        String type,
+        String role,
+        Integer tokenVersion,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    public boolean isAccessToken() {
+        return TYPE_ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+}
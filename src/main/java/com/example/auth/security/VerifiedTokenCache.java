@@ -0,0 +1,102 @@
+package com.example.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서명 검증이 끝난 Access Token을 메모리에 보관하는 캐시
+ * 클라이언트는 토큰이 만료될때까지 같은 토큰을 계속 보내므로, 두번째 요청부터는 HMAC 검증과 claim 파싱을 건너뛴다.
+ *
+ * - key : 토큰 문자열의 SHA-256 digest(원본 토큰은 보관하지 않음)
+ * - 만료 : 각 토큰의 exp 시간에 맞춰 항목이 제거된다
+ * - 크기 : jwt.cache.max-size를 넘으면 W-TinyLFU 정책으로 제거(Caffeine)
+ * - hit/miss/eviction 카운터는 cache.gets, cache.evictions 메트릭(name=jwt.verified-token)으로 노출
+ * */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+    public static final String CACHE_NAME = "jwt.verified-token";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final boolean enabled;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            JwtTokenProvider jwtTokenProvider,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.enabled:false}") boolean enabled,
+            @Value("${jwt.cache.max-size:100000}") long maxSize
+    ) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+            log.info("검증된 토큰 캐시 사용(max-size={})", maxSize);
+        }
+    }
+
+    /**
+     * 캐시에 있으면 검증 결과를 바로 반환하고, 없으면 JwtTokenProvider로 검증한 뒤 캐시에 저장한다.
+     * 검증에 실패한 토큰은 캐시에 저장되지 않는다.
+     *
+     * @param token 검증할 토큰 문자열
+     * @return 검증된 claim 정보
+     * @throws io.jsonwebtoken.JwtException 서명이 올바르지 않거나 만료된 토큰인 경우
+     * */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return jwtTokenProvider.verify(token);
+        }
+
+        return cache.get(ByteBuffer.wrap(TokenDigest.sha256(token)), key -> jwtTokenProvider.verify(token));
+    }
+
+    /**
+     * 캐시 크기 조정을 위한 통계(hit, miss, eviction)
+     * */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 항목마다 토큰의 exp 시간에 맞춰 만료되도록 설정
+     * */
+    private static final class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            Instant expiresAt = value.expiresAt();
+            if (expiresAt == null) {
+                return 0L;
+            }
+            long remainingMillis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
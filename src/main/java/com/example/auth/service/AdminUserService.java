@@ -0,0 +1,57 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.User;
+import com.example.auth.exception.AccountException;
+import com.example.auth.repository.UserRepository;
+import com.example.auth.invalidation.InvalidationBus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 관리자가 사용자의 권한, 계정 상태를 변경하는 서비스
+ * 변경될때마다 token version을 올려서 이미 발급된 access token의 claim이 더 이상 사용되지 않도록 한다.
+ * 변경은 InvalidationBus로 다른 서버에도 전달된다.
+ * */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminUserService {
+    private final UserRepository userRepository;
+    private final InvalidationBus invalidationBus;
+
+    @Transactional
+    public void changeRole(Long userId, User.Role role) {
+        User user = findUser(userId);
+        if (user.getRole() == role) {
+            return;
+        }
+
+        user.setRole(role);
+        user.increaseTokenVersion();
+        invalidationBus.userChanged(user);     // 모든 서버의 token version, 상태 캐시에 반영
+
+        log.info("사용자 권한 변경: userId={}, role={}", userId, role);
+    }
+
+    @Transactional
+    public void changeStatus(Long userId, boolean active) {
+        User user = findUser(userId);
+        if (user.getIsActive() == active) {
+            return;
+        }
+
+        user.setIsActive(active);
+        user.increaseTokenVersion();
+        invalidationBus.userChanged(user);
+
+        log.info("사용자 계정 상태 변경: userId={}, active={}", userId, active);
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId).orElseThrow(()-> {
+            return new AccountException("존재하지 않는 사용자입니다.");
+        });
+    }
+}
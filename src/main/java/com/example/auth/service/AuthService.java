@@ -1,43 +1,60 @@
 package com.example.auth.service;
 
 import com.example.auth.dto.*;
-import com.example.auth.entity.RefreshToken;
 import com.example.auth.entity.User;
 import com.example.auth.exception.AccountException;
 import com.example.auth.exception.DuplicationEmailException;
 import com.example.auth.exception.InvalidCredentialException;
+import com.example.auth.exception.ServiceOverloadedException;
 import com.example.auth.exception.TokenException;
-import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.invalidation.InvalidationBus;
+import com.example.auth.metrics.AuthMetrics;
+import com.example.auth.metrics.AuthMetrics.Outcome;
+import com.example.auth.metrics.AuthMetrics.Stage;
 import com.example.auth.repository.UserRepository;
 import com.example.auth.security.CustomUserDetails;
 import com.example.auth.security.JwtTokenProvider;
+import com.example.auth.security.UserSnapshot;
+import com.example.auth.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.Optional;
 
+/**
+ * 회원 가입, 로그인, 토큰 재발급
+ *
+ * 비밀번호 hash(encode/matches)는 BoundedPasswordEncoder의 대기열에서 최대 max-wait까지 기다리므로 transaction 밖에서 한다.
+ * transaction 안에서 hash하면 기다리는 동안 DB connection을 잡고 있어서, 로그인이 몰리면 connection pool이 바닥나
+ * DB를 사용하는 다른 요청까지 실패한다. 사용자 조회는 repository의 짧은 transaction으로 끝내고,
+ * transaction은 hash가 끝난 뒤 저장(가입, 토큰 발급, hash 갱신)에만 연다.
+ * */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;    // token발급기이자 검증기
     private final AuthenticationManager authenticationManager;
+    private final InvalidationBus invalidationBus;
+    private final AuthMetrics authMetrics;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
     public ApiResponse<Void> signup(RequestSignup requestSignup) {
         // 이메일 정규화(Normalize)
         String email = requestSignup.getEmail().trim().toLowerCase();
@@ -45,7 +62,7 @@ public class AuthService {
         log.info("request email : {}", email);
 
         try {
-            // requestSignup정보를 기반으로 User Entity 인스턴스를 생성
+            // requestSignup정보를 기반으로 User Entity 인스턴스를 생성(hash는 transaction 밖에서)
             User user = User.builder()
                     .email(email)
                     .password(passwordEncoder.encode(requestSignup.getPassword()))
@@ -54,27 +71,32 @@ public class AuthService {
                     .isActive(true)
                     .build();
 
-            userRepository.save(user);
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.save(user);
+                // 가입 전에 조회되어 '없는 사용자'로 캐시된 항목을 모든 서버에서 제거(event도 같은 transaction으로 commit)
+                invalidationBus.userChanged(user);
+            });
             return ApiResponse.success("회원 가입 성공");
 
         } catch (DataIntegrityViolationException e) {
-            System.out.println("중복 회원 가입 시도");
-            // log.warn("중복 회원 가입 시도: {}", email);
+            log.warn("중복 회원 가입 시도");
             throw new DuplicationEmailException("이미 가입된 이메일입니다.");
 
             // return ApiResponse.error("이미 가입된 회원입니다");
+        } catch (ServiceOverloadedException e) {
+            // 비밀번호 hash pool이 가득 참(503으로 응답)
+            throw e;
         } catch (Exception e) {
             log.error("회원 가입중 오류 발생: {}", e.getMessage());
             return ApiResponse.error("회원가입 중 오류가 발생했습니다");
         }
     }
 
-    @Transactional
     public LoginResponse login(RequestLogin requestLogin) {
 
         String normalizeEmail = requestLogin.getEmail().trim().toLowerCase();
 
-        // 이메일로 사용자 조회
+        // 이메일로 사용자 조회(repository의 짧은 읽기 transaction)
         Optional<User> optUser = userRepository.findByEmail(normalizeEmail);
         User user = null;
         if (optUser.isPresent())
@@ -84,59 +106,101 @@ public class AuthService {
             throw new InvalidCredentialException("존재하지 않는 사용자입니다.");
         }
 
-        // 비밀번호 체크하기
+        // 비밀번호 체크하기(transaction 밖, DB connection을 잡지 않음)
+        long start = authMetrics.start();
         boolean isValid = passwordEncoder.matches(
                 requestLogin.getPassword(), user.getPassword()
         );
         if ( !isValid ) {
-            throw new InvalidCredentialException("비밀번호가 일치하지 않습니다.");
+            throw authMetrics.fail(Stage.LOGIN_PASSWORD, Outcome.INVALID, start,
+                    new InvalidCredentialException("비밀번호가 일치하지 않습니다."));
         }
 
         // 계정 상태 확인하기
         if (!user.getIsActive()) {
-            throw new AccountException("비활성화된 계정입니다.");
+            throw authMetrics.fail(Stage.LOGIN_PASSWORD, Outcome.INACTIVE, start,
+                    new AccountException("비활성화된 계정입니다."));
         }
+        authMetrics.record(Stage.LOGIN_PASSWORD, Outcome.SUCCESS, start);
 
-        return createLoginResponse(user);
+        return issueLoginResponse(user, rehash(user, requestLogin.getPassword()));
     }
 
 
-    @Transactional
     public LoginResponse loginEx(@Valid RequestLogin requestLogin) {
         String email = requestLogin.getEmail().trim().toLowerCase();
 
+        // 사용자 조회 + 비밀번호 검증(bcrypt) + 계정 상태 확인(transaction 밖)
+        long start = authMetrics.start();
         Authentication authentication;
         try {
             authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, requestLogin.getPassword())
             );
+        } catch (AccountStatusException ex) {
+            throw authMetrics.fail(Stage.LOGIN_PASSWORD, Outcome.INACTIVE, start,
+                    new InvalidCredentialException("이메일 또는 비밀번호가 올바르지 않습니다."));
         } catch (AuthenticationException ex) {
-            throw new InvalidCredentialException("이메일 또는 비밀번호가 올바르지 않습니다.");
+            throw authMetrics.fail(Stage.LOGIN_PASSWORD, Outcome.INVALID, start,
+                    new InvalidCredentialException("이메일 또는 비밀번호가 올바르지 않습니다."));
         }
+        authMetrics.record(Stage.LOGIN_PASSWORD, Outcome.SUCCESS, start);
 
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         User user = userDetails.getUser();
 
-        return createLoginResponse(user);
+        return issueLoginResponse(user, rehash(user, requestLogin.getPassword()));
+    }
+
+    /**
+     * 저장된 hash의 알고리즘/cost가 현재 설정과 다르면(낮으면) 로그인에 성공한 비밀번호로 다시 hash한다(transaction 밖).
+     * 비밀번호 초기화 없이 cost를 올리거나 알고리즘을 바꿀 수 있다.
+     * 다시 hash하지 못해도(과부하) 로그인은 그대로 진행하고 다음 로그인때 다시 시도한다.
+     *
+     * @return 새 hash, 갱신할 필요가 없거나 하지 못했으면 null
+     * */
+    private String rehash(User user, String rawPassword) {
+        if (user.getPassword() == null || !passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return null;
+        }
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } catch (ServiceOverloadedException e) {
+            log.debug("비밀번호 hash 갱신을 다음 로그인으로 미룸: userId={}", user.getId());
+            return null;
+        }
+    }
+
+    /**
+     * 로그인 응답 생성(토큰 발급 + refresh token 저장, 새 hash 저장)에 걸린 시간을 기록
+     * hash가 모두 끝난 뒤이므로 transaction은 저장하는 동안만 열린다.
+     *
+     * @param upgradedHash rehash로 만든 새 비밀번호 hash(없으면 null)
+     * */
+    private LoginResponse issueLoginResponse(User user, String upgradedHash) {
+        long start = authMetrics.start();
+        try {
+            LoginResponse response = transactionTemplate.execute(status -> {
+                if (upgradedHash != null
+                        && userRepository.updatePasswordHash(user.getId(), user.getPassword(), upgradedHash, LocalDateTime.now()) > 0) {
+                    log.debug("비밀번호 hash 갱신: userId={}", user.getId());
+                }
+                return createLoginResponse(user);
+            });
+            authMetrics.record(Stage.LOGIN_TOKEN, Outcome.SUCCESS, start);
+            return response;
+        } catch (RuntimeException e) {
+            throw authMetrics.fail(Stage.LOGIN_TOKEN, Outcome.ERROR, start, e);
+        }
     }
 
     private LoginResponse createLoginResponse(User user) {
         //
         // 토큰을 생성
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getEmail(), user.getId());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
-
-        // refresh token은 데이터베이스에 저장한다.
-        RefreshToken refreshTokenEntity = RefreshToken.builder()
-                .token(refreshToken)
-                .user(user)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.ofInstant(
-                        jwtTokenProvider.getRefreshTokenExpiryDate().toInstant(),
-                        ZoneId.systemDefault()
-                )).build();
-
-        refreshTokenRepository.save(refreshTokenEntity);
+        String accessToken = jwtTokenProvider.generateAccessToken(
+                user.getEmail(), user.getId(), user.getRole().name(), user.getTokenVersion());
+        // refresh token은 새 family로 발급하고 데이터베이스에 저장한다.
+        String refreshToken = refreshTokenService.issue(user);
 
         LoginResponse.UserInfo userInfo = LoginResponse.UserInfo.builder()
                 .id(user.getId())
@@ -159,45 +223,58 @@ public class AuthService {
         return ApiResponse.error(message);
     }
 
+    /**
+     * refresh token으로 access token을 재발급하고 refresh token도 새 토큰으로 교체(rotation)한다.
+     * 이미 사용된 refresh token이 다시 오면 같은 family의 토큰이 모두 폐기된다.
+     *
+     * @param refreshToken 클라이언트가 보낸 refresh token
+     * @return 새 access token과 새 refresh token
+     * */
     public TokenRefreshResponse refreshAccessToken(String refreshToken) {
 
-        // 1. refresh token 검증하기
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new TokenException("유효하지 않은 Refresh Token입니다.");
-        }
-
-        // 2. Refresh Token으로부터 이메일 추출하기
-        String email = jwtTokenProvider.getEmailFromToken(refreshToken);
+        long start = authMetrics.start();
 
-        // 3. DB에 해당 사용자가 존재하는지, 해당 refresh token이 존재하는지 확인
-        RefreshToken tokenEntity = refreshTokenRepository.findByToken(refreshToken).orElseThrow(()-> {
-                    return new TokenException("유효하지 않은 Refresh Token입니다.");
-        });
-
-        // 4. refresh token이 만료되었는지 확인
-        if (tokenEntity.getExpiresAt().isBefore((LocalDateTime.now()))) {
-            throw new TokenException("Refresh Token이 만료되었습니다");
-        }
-
-        // 5. 사용자 조회
-        User user = tokenEntity.getUser();
-        if (user==null || !user.getIsActive()) {
-            throw new AccountException("비활성화된 사용자입니다");
+        // 1. refresh token 검증하기(파싱과 서명 검증은 한번만)
+        VerifiedToken verified;
+        try {
+            verified = jwtTokenProvider.verify(refreshToken);
+        } catch (ExpiredJwtException e) {
+            throw authMetrics.fail(Stage.REFRESH, Outcome.EXPIRED, start,
+                    new TokenException("Refresh Token이 만료되었습니다"));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw authMetrics.fail(Stage.REFRESH, Outcome.INVALID, start,
+                    new TokenException("유효하지 않은 Refresh Token입니다."));
         }
 
-        // 6. email 아이디 체크하기
-        if (!user.getEmail().equals(email)) {
-            throw new AccountException("잘 못된 사용자입니다");
+        // 2. 사용됨 처리 + 같은 family의 새 refresh token 발급(별도 transaction, 재사용 감지시 폐기는 commit됨)
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken, verified.subject());
+        switch (rotation.status()) {
+            case ROTATED -> { }
+            case EXPIRED -> throw authMetrics.fail(Stage.REFRESH, Outcome.EXPIRED, start,
+                    new TokenException("Refresh Token이 만료되었습니다"));
+            case INACTIVE -> throw authMetrics.fail(Stage.REFRESH, Outcome.INACTIVE, start,
+                    new AccountException("비활성화된 사용자입니다"));
+            case SUBJECT_MISMATCH -> throw authMetrics.fail(Stage.REFRESH, Outcome.INVALID, start,
+                    new AccountException("잘 못된 사용자입니다"));
+            case CONCURRENT -> throw authMetrics.fail(Stage.REFRESH, Outcome.INVALID, start,
+                    new TokenException("이미 사용된 Refresh Token입니다."));
+            case REUSED, REVOKED -> throw authMetrics.fail(Stage.REFRESH, Outcome.INVALID, start,
+                    new TokenException("폐기된 Refresh Token입니다. 다시 로그인해주세요."));
+            default -> throw authMetrics.fail(Stage.REFRESH, Outcome.INVALID, start,
+                    new TokenException("유효하지 않은 Refresh Token입니다."));
         }
 
         // 통과!
-        String newAccessToken = jwtTokenProvider.generateAccessToken(user.getEmail(), user.getId());
+        UserSnapshot user = rotation.user();
+        String newAccessToken = jwtTokenProvider.generateAccessToken(
+                user.email(), user.id(), user.role().name(), user.tokenVersion());
 
         // 토큰 응답 객체를 생성
         TokenRefreshResponse response = new TokenRefreshResponse();
-        response.setAccessToken(newAccessToken);    // 새로 발급받은 Access Token
-        response.setRefreshToken(refreshToken);     // Access Token 발급을 위해 사용된 Refresh Token
+        response.setAccessToken(newAccessToken);                // 새로 발급받은 Access Token
+        response.setRefreshToken(rotation.refreshToken());     // 사용된 토큰 대신 새로 발급된 Refresh Token
 
+        authMetrics.record(Stage.REFRESH, Outcome.SUCCESS, start);
         return response;
     }
 }
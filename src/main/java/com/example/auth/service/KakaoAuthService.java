@@ -4,11 +4,14 @@ import com.example.auth.config.KakaoOAuthProperties;
 import com.example.auth.dto.LoginResponse;
 import com.example.auth.dto.kakao.KakaoTokenResponse;
 import com.example.auth.dto.kakao.KakaoUserResponse;
-import com.example.auth.entity.RefreshToken;
+import com.example.auth.invalidation.InvalidationBus;
 import com.example.auth.entity.User;
-import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.metrics.AuthMetrics;
+import com.example.auth.metrics.AuthMetrics.Outcome;
+import com.example.auth.metrics.AuthMetrics.Stage;
 import com.example.auth.repository.UserRepository;
 import com.example.auth.security.JwtTokenProvider;
+import com.example.auth.security.UserStatusCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,11 +20,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.util.UriComponentsBuilder;
-import tools.jackson.databind.ObjectMapper;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.Optional;
 
 @Slf4j
@@ -30,10 +31,12 @@ import java.util.Optional;
 public class KakaoAuthService {
     private final KakaoOAuthProperties kakaoOAuthProperties;
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final JwtTokenProvider jwtTokenProvider;
-    private final RestClient restClient = RestClient.create();
-    private final ObjectMapper objectMapper;
+    private final UserStatusCache userStatusCache;
+    private final InvalidationBus invalidationBus;
+    private final AuthMetrics authMetrics;
+    private final RestClient restClient;     // RestClientConfig.kakaoRestClient
 
     @Value("${oauth.kakao.provider_name}")
     private String PROVIDER_NAME;
@@ -54,8 +57,7 @@ public class KakaoAuthService {
                 .build()
                 .toUriString();
 
-        System.out.println( url );
-        // log.debug("카카오 인증 URL: {}", url);
+        log.debug("카카오 인증 URL: {}", url);
 
         return url;
     }
@@ -72,21 +74,24 @@ public class KakaoAuthService {
         params.add("client_secret", kakaoOAuthProperties.getClientSecret());
 
         String tokenUrl = kakaoOAuthProperties.getTokenUri();
-        KakaoTokenResponse kakaoTokenResponse = restClient.post()
-                .uri(tokenUrl)
-                .contentType(MediaType.parseMediaType("application/x-www-form-urlencoded;charset=utf-8"))
-                .body(params)
-                .retrieve()
-                .body(KakaoTokenResponse.class);
-
-        try{
-            String resJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(kakaoTokenResponse);
-
-            System.out.println("=======================================");
-            System.out.println( resJson );
-            System.out.println("=======================================");
-        } catch (Exception e) {
-            System.out.println( e.getMessage() );
+        long start = authMetrics.start();
+        KakaoTokenResponse kakaoTokenResponse;
+        try {
+            kakaoTokenResponse = restClient.post()
+                    .uri(tokenUrl)
+                    .contentType(MediaType.parseMediaType("application/x-www-form-urlencoded;charset=utf-8"))
+                    .body(params)
+                    .retrieve()
+                    .body(KakaoTokenResponse.class);
+        } catch (RestClientException e) {
+            throw authMetrics.fail(Stage.KAKAO_TOKEN, Outcome.ERROR, start, e);
+        }
+        authMetrics.record(Stage.KAKAO_TOKEN, Outcome.SUCCESS, start);
+
+        // 토큰 값은 기록하지 않음
+        if (kakaoTokenResponse != null) {
+            log.debug("카카오 토큰 발급 완료(scope={}, expiresIn={})",
+                    kakaoTokenResponse.getScope(), kakaoTokenResponse.getExpiresIn());
         }
 
         return kakaoTokenResponse;
@@ -96,24 +101,23 @@ public class KakaoAuthService {
         String userInfoUrl = kakaoOAuthProperties.getUserInfoUri();
 
         // 카카오 사용자 정보 API호출
-        KakaoUserResponse kakaoUserResponse = restClient.get()
-                .uri(userInfoUrl)
-                .header("Authorization", "bearer "+accessToken)
-                .header("Content-Type", "application/x-www-form-urlencoded;charset=utf-8")
-                .retrieve()
-                .body(KakaoUserResponse.class);
-
-        // Debug
-        try{
-            String resJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(kakaoUserResponse);
-
-            System.out.println("=======================================");
-            System.out.println( resJson );
-            System.out.println("=======================================");
-        } catch (Exception e) {
-            System.out.println( e.getMessage() );
+        long start = authMetrics.start();
+        KakaoUserResponse kakaoUserResponse;
+        try {
+            kakaoUserResponse = restClient.get()
+                    .uri(userInfoUrl)
+                    .header("Authorization", "bearer "+accessToken)
+                    .header("Content-Type", "application/x-www-form-urlencoded;charset=utf-8")
+                    .retrieve()
+                    .body(KakaoUserResponse.class);
+        } catch (RestClientException e) {
+            throw authMetrics.fail(Stage.KAKAO_USER_INFO, Outcome.ERROR, start, e);
+        }
+        authMetrics.record(Stage.KAKAO_USER_INFO, Outcome.SUCCESS, start);
+
+        if (kakaoUserResponse != null) {
+            log.debug("카카오 사용자 정보 조회 완료(id={})", kakaoUserResponse.getId());
         }
-        //
 
         return kakaoUserResponse;
     }
@@ -157,8 +161,13 @@ public class KakaoAuthService {
                     .build();
 
             userRepository.save(user);
+            // 가입 전에 조회되어 '없는 사용자'로 캐시된 항목을 모든 서버에서 제거
+            invalidationBus.userChanged(user);
         }
 
+        // 변경(또는 새로 저장)된 사용자의 상태 캐시를 제거
+        userStatusCache.invalidate(user);
+
         // JWT 토큰 생성
         // Refresh Token DB저장
         // LoginResponse 인스턴스 생성하여 반환
@@ -169,20 +178,10 @@ public class KakaoAuthService {
     private LoginResponse createLoginResponse(User user) {
         //
         // 토큰을 생성
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getEmail(), user.getId());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
-
-        // refresh token은 데이터베이스에 저장한다.
-        RefreshToken refreshTokenEntity = RefreshToken.builder()
-                .token(refreshToken)
-                .user(user)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.ofInstant(
-                        jwtTokenProvider.getRefreshTokenExpiryDate().toInstant(),
-                        ZoneId.systemDefault()
-                )).build();
-
-        refreshTokenRepository.save(refreshTokenEntity);
+        String accessToken = jwtTokenProvider.generateAccessToken(
+                user.getEmail(), user.getId(), user.getRole().name(), user.getTokenVersion());
+        // refresh token은 새 family로 발급하고 데이터베이스에 저장한다.
+        String refreshToken = refreshTokenService.issue(user);
 
         LoginResponse.UserInfo userInfo = LoginResponse.UserInfo.builder()
                 .id(user.getId())
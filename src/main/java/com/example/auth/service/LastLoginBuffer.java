@@ -0,0 +1,128 @@
+package com.example.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * users.last_login_at을 로그인마다 UPDATE하지 않고 메모리에 모아두었다가 주기적으로 한번에 저장한다.
+ *
+ * - 사용자별로 가장 최근 시간만 남긴다(같은 사용자가 여러번 로그인해도 UPDATE는 한번)
+ * - flush-interval마다 batch-size명씩 UPDATE ... CASE 문 하나로 저장한다.
+ * - 여러 서버가 저장해도 GREATEST로 더 최근 시간만 남는다.
+ * - max-pending명을 넘으면 새 사용자의 기록은 버린다(메모리 상한, auth.last-login.dropped 메트릭)
+ * - 종료시 남은 기록을 저장한다. 비정상 종료시에는 마지막 flush 이후의 기록이 사라진다(통계용 정보).
+ * */
+@Slf4j
+@Component
+public class LastLoginBuffer {
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final Map<Long, LocalDateTime> latest = new ConcurrentHashMap<>();
+    private final Counter droppedCounter;
+
+    public LastLoginBuffer(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.last-login.batch-size:500}") int batchSize,
+            @Value("${auth.last-login.max-pending:100000}") int maxPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.droppedCounter = Counter.builder("auth.last-login.dropped")
+                .description("대기 사용자 수 상한을 넘어서 버린 로그인 시간 기록 수")
+                .register(meterRegistry);
+        Gauge.builder("auth.last-login.pending", latest, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로그인 시간을 기록한다(DB에는 다음 flush때 저장됨)
+     * */
+    public void record(Long userId, LocalDateTime loginAt) {
+        if (userId == null) {
+            return;
+        }
+        if (latest.size() >= maxPending && !latest.containsKey(userId)) {
+            droppedCounter.increment();
+            return;
+        }
+        latest.merge(userId, loginAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${auth.last-login.flush-interval:10000}",
+            initialDelayString = "${auth.last-login.flush-interval:10000}"
+    )
+    public void flush() {
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        // 저장할 기록을 꺼낸다. 꺼내는 동안 더 최근 시간으로 바뀐 기록은 다음 flush에 저장된다.
+        List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>();
+        for (Map.Entry<Long, LocalDateTime> entry : latest.entrySet()) {
+            Long userId = entry.getKey();
+            LocalDateTime loginAt = entry.getValue();
+            if (latest.remove(userId, loginAt)) {
+                entries.add(Map.entry(userId, loginAt));
+            }
+        }
+
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Long, LocalDateTime>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            try {
+                update(batch);
+            } catch (DataAccessException e) {
+                log.warn("로그인 시간 저장 실패({}명): {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * UPDATE users SET last_login_at = GREATEST(COALESCE(last_login_at, ?), CASE id WHEN ? THEN ? ... END)
+     * WHERE id IN (?, ...)
+     * */
+    private void update(List<Map.Entry<Long, LocalDateTime>> batch) {
+        StringBuilder sql = new StringBuilder(64 + batch.size() * 24);
+        List<Object> args = new ArrayList<>(batch.size() * 3 + 1);
+
+        sql.append("UPDATE users SET last_login_at = GREATEST(COALESCE(last_login_at, ?), CASE id");
+        args.add(Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0)));
+        for (Map.Entry<Long, LocalDateTime> entry : batch) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(Timestamp.valueOf(entry.getValue()));
+        }
+        sql.append(" END) WHERE id IN (")
+                .append(String.join(", ", Collections.nCopies(batch.size(), "?")))
+                .append(')');
+        for (Map.Entry<Long, LocalDateTime> entry : batch) {
+            args.add(entry.getKey());
+        }
+
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
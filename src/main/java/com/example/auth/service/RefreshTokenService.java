@@ -0,0 +1,198 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.RefreshToken;
+import com.example.auth.entity.User;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.repository.RefreshTokenView;
+import com.example.auth.repository.UserRepository;
+import com.example.auth.security.JwtTokenProvider;
+import com.example.auth.security.TokenDigest;
+import com.example.auth.security.UserSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh Token 발급과 rotation
+ *
+ * - 로그인할 때마다 새 family를 시작하고, refresh할 때마다 같은 family의 새 토큰을 발급한다.
+ * - 기존 토큰은 조건부 UPDATE 한번으로 사용됨 처리한다(markUsed). 확인과 변경이 한 문장이므로 row lock이나 재시도가 필요 없다.
+ * - 이미 사용된 토큰이 다시 오면 탈취로 보고 family 전체를 폐기한다.
+ *   단, 같은 기기에서 거의 동시에 보낸 요청(jwt.refresh-reuse-grace 이내)은 폐기하지 않고 거절만 한다.
+ * */
+@Slf4j
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenWriteBehind writeBehind;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final Duration reuseGrace;
+    private final int maxSessions;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            JwtTokenProvider jwtTokenProvider,
+            RefreshTokenWriteBehind writeBehind,
+            LastLoginBuffer lastLoginBuffer,
+            @Value("${jwt.refresh-reuse-grace:10000}") long reuseGraceMillis,
+            @Value("${auth.refresh-token.max-sessions:10}") int maxSessions
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.writeBehind = writeBehind;
+        this.lastLoginBuffer = lastLoginBuffer;
+        this.reuseGrace = Duration.ofMillis(reuseGraceMillis);
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * rotation 결과
+     * */
+    public enum Status {
+        ROTATED,        // 새 토큰 발급
+        NOT_FOUND,      // DB에 없는 토큰
+        EXPIRED,        // 만료된 토큰
+        REVOKED,        // 이미 폐기된 family의 토큰
+        REUSED,         // 사용된 토큰이 다시 옴 -> family 폐기
+        CONCURRENT,     // 방금 사용된 토큰(동시 요청), 폐기하지 않음
+        INACTIVE,       // 비활성화된 사용자
+        SUBJECT_MISMATCH    // 토큰의 subject와 사용자가 다름
+    }
+
+    /**
+     * @param status 결과
+     * @param user 토큰의 사용자(ROTATED인 경우)
+     * @param refreshToken 새로 발급된 refresh token(ROTATED인 경우)
+     * */
+    public record Rotation(Status status, UserSnapshot user, String refreshToken) {
+        static Rotation of(Status status) {
+            return new Rotation(status, null, null);
+        }
+    }
+
+    /**
+     * 새 family를 시작하는 refresh token을 발급하고 저장한다(로그인)
+     * 사용자의 활성 토큰이 max-sessions개를 넘지 않도록 오래된 토큰부터 같은 transaction에서 삭제한다.
+     * 로그인 시간(users.last_login_at)은 LastLoginBuffer에 모았다가 나중에 저장한다.
+     *
+     * @return refresh token 문자열
+     * */
+    @Transactional
+    public String issue(User user) {
+        if (maxSessions > 0) {
+            int evicted = refreshTokenRepository.deleteActiveExceptNewest(user.getId(), maxSessions - 1, LocalDateTime.now());
+            if (evicted > 0) {
+                log.debug("세션 수 제한으로 오래된 refresh token 삭제: userId={}, evicted={}", user.getId(), evicted);
+            }
+        }
+        lastLoginBuffer.record(user.getId(), LocalDateTime.now());
+        return issue(user.getId(), user.getEmail(), newFamilyId());
+    }
+
+    /**
+     * refresh token을 사용됨으로 처리하고 같은 family의 새 토큰을 발급한다.
+     * 재사용으로 family를 폐기한 경우에도 결과를 반환(예외를 던지지 않음)하므로 폐기는 그대로 commit된다.
+     * 사용자 정보는 projection으로 함께 조회하므로 open-in-view 없이 이 transaction 안에서 끝난다.
+     *
+     * @param refreshToken 서명 검증이 끝난 refresh token
+     * @param subject 토큰의 subject(사용자 이메일)
+     * @return rotation 결과
+     * */
+    @Transactional
+    public Rotation rotate(String refreshToken, String subject) {
+        byte[] tokenHash = TokenDigest.sha256(refreshToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        // write-behind 대기열에만 있는 토큰이면 먼저 저장
+        writeBehind.awaitPersisted(tokenHash);
+
+        int updated = refreshTokenRepository.markUsed(tokenHash, now);
+
+        Optional<RefreshTokenView> found = refreshTokenRepository.findViewByTokenHash(tokenHash);
+        if (found.isEmpty()) {
+            return Rotation.of(Status.NOT_FOUND);
+        }
+        RefreshTokenView token = found.get();
+
+        if (updated == 0) {
+            return rejected(token, now);
+        }
+
+        UserSnapshot user = token.user();
+        if (!user.active()) {
+            return Rotation.of(Status.INACTIVE);
+        }
+        if (!user.email().equals(subject)) {
+            return Rotation.of(Status.SUBJECT_MISMATCH);
+        }
+
+        String newRefreshToken = issue(user.id(), user.email(), token.familyId());
+        return new Rotation(Status.ROTATED, user, newRefreshToken);
+    }
+
+    /**
+     * markUsed가 0을 반환한 이유를 판단한다.
+     * */
+    private Rotation rejected(RefreshTokenView token, LocalDateTime now) {
+        if (token.revoked()) {
+            return Rotation.of(Status.REVOKED);
+        }
+        if (token.lastUsedAt() == null) {
+            // 사용되지 않았는데 UPDATE되지 않았다면 만료된 토큰
+            return Rotation.of(Status.EXPIRED);
+        }
+        if (token.lastUsedAt().plus(reuseGrace).isAfter(now)) {
+            return Rotation.of(Status.CONCURRENT);
+        }
+
+        int revoked = refreshTokenRepository.revokeFamily(token.familyId());
+        log.warn("refresh token 재사용 감지, family 폐기: userId={}, revoked={}", token.userId(), revoked);
+        return Rotation.of(Status.REUSED);
+    }
+
+    private String issue(Long userId, String email, byte[] familyId) {
+        String refreshToken = jwtTokenProvider.generateRefreshToken(email);
+        byte[] tokenHash = TokenDigest.sha256(refreshToken);
+        LocalDateTime createdAt = LocalDateTime.now();
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                jwtTokenProvider.getRefreshTokenExpiryDate().toInstant(),
+                ZoneId.systemDefault());
+
+        // write-behind를 사용하면 모아서 저장하고, 아니면(또는 대기열이 가득 차면) 바로 저장한다.
+        if (writeBehind.enqueue(new RefreshTokenWriteBehind.Row(tokenHash, familyId, userId, createdAt, expiresAt))) {
+            return refreshToken;
+        }
+
+        // refresh token은 digest만 데이터베이스에 저장한다.
+        RefreshToken refreshTokenEntity = RefreshToken.builder()
+                .tokenHash(tokenHash)
+                .familyId(familyId)
+                .user(userRepository.getReferenceById(userId))     // 조회 없이 FK만 설정
+                .createdAt(createdAt)
+                .expiresAt(expiresAt)
+                .build();
+
+        refreshTokenRepository.save(refreshTokenEntity);
+        return refreshToken;
+    }
+
+    private static byte[] newFamilyId() {
+        UUID uuid = UUID.randomUUID();
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
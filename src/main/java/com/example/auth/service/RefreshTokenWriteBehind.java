@@ -0,0 +1,426 @@
+package com.example.auth.service;
+
+import com.example.auth.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 새 refresh token을 바로 저장하지 않고 모아서 multi-row INSERT 한번으로 저장한다(write-behind, 기본값 off)
+ *
+ * - IDENTITY key라서 Hibernate가 batch insert를 하지 못하므로 JdbcTemplate으로 직접 INSERT 한다.
+ * - flush-interval(ms)마다 또는 batch-size개가 모이면 저장한다(group commit).
+ * - 아직 저장되지 않은 토큰으로 refresh가 오면 그 자리에서 먼저 저장한 뒤 처리한다(awaitPersisted).
+ *   요청 스레드에서 저장할 때는 호출한 쪽 transaction과 별도의 transaction(REQUIRES_NEW)으로 commit한다.
+ *   토큰을 발급한 transaction은 이미 commit되었으므로, 호출한 쪽이 rollback되어도 토큰은 남아야 한다.
+ * - 종료시(graceful shutdown) 남은 토큰을 모두 저장한다. 서버가 비정상 종료되면 저장되지 않은 토큰은 사라진다(다시 로그인 필요).
+ * - 대기 중인 토큰이 max-pending을 넘으면 호출한 스레드에서 바로 저장한다.
+ * - 저장에 실패한 토큰은 대기열로 되돌려서 다시 저장한다(5번까지, 실패한 batch 뒤에는 1초 쉼).
+ *   그래도 실패하면 버리고(auth.refresh-token.write-behind.dropped) 기다리던 요청에 실패를 알린다.
+ *   저장된 토큰만 대기 목록에서 제거하므로, 저장되지 않은 토큰으로 refresh하면 NOT_FOUND 대신 503(다시 시도)을 받는다.
+ * */
+@Slf4j
+@Component
+public class RefreshTokenWriteBehind {
+    private static final String INSERT_PREFIX =
+            "INSERT INTO refresh_tokens (token_hash, family_id, user_id, created_at, expires_at, is_revoked) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, FALSE)";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final boolean enabled;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final int maxPending;
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Map<ByteBuffer, Pending> pending = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public RefreshTokenWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${auth.refresh-token.write-behind.enabled:false}") boolean enabled,
+            @Value("${auth.refresh-token.write-behind.flush-interval:5}") long flushIntervalMillis,
+            @Value("${auth.refresh-token.write-behind.batch-size:100}") int batchSize,
+            @Value("${auth.refresh-token.write-behind.max-pending:10000}") int maxPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.flushTimer = Timer.builder("auth.refresh-token.write-behind.flush")
+                .description("대기 중인 refresh token을 한번에 저장하는데 걸린 시간")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("auth.refresh-token.write-behind.dropped")
+                .description("여러번 저장에 실패해서 버린 refresh token 수")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh-token.write-behind.pending", pending, Map::size)
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.writer = Thread.ofPlatform().name("refresh-token-writer").daemon(true).unstarted(this::run);
+            this.writer.start();
+            log.info("refresh token write-behind 사용(flush-interval={}ms, batch-size={})", flushIntervalMillis, batchSize);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * 저장할 refresh token
+     * */
+    public record Row(byte[] tokenHash, byte[] familyId, Long userId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * 저장을 예약한다. transaction 안이면 commit된 후에 예약한다(새로 가입한 사용자의 FK).
+     *
+     * @return 예약했으면 true, 사용하지 않거나 대기열이 가득 찼으면 false(호출한 쪽에서 바로 저장)
+     * */
+    public boolean enqueue(Row row) {
+        if (!enabled || closed || pending.size() >= maxPending) {
+            return false;
+        }
+
+        Pending item = new Pending(row);
+        pending.put(ByteBuffer.wrap(row.tokenHash()), item);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        item.queued = true;
+                        queue.offer(item);
+                    } else {
+                        pending.remove(ByteBuffer.wrap(row.tokenHash()), item);
+                    }
+                }
+            });
+        } else {
+            item.queued = true;
+            queue.offer(item);
+        }
+        return true;
+    }
+
+    /**
+     * 해당 토큰이 아직 저장되지 않았으면 지금 저장한다(이미 writer가 저장 중이면 끝날때까지 기다림)
+     *
+     * @throws ServiceOverloadedException 저장하지 못함(토큰은 대기열에 남아 있으므로 잠시 후 다시 시도)
+     * */
+    public void awaitPersisted(byte[] tokenHash) {
+        if (!enabled) {
+            return;
+        }
+        Pending item = pending.get(ByteBuffer.wrap(tokenHash));
+        if (item != null && item.queued) {
+            persistNow(List.of(item));
+        }
+    }
+
+    /**
+     * 해당 사용자의 대기 중인 토큰을 INSERT 한번으로 저장한다(로그아웃에서 토큰을 삭제하기 전)
+     * 아직 commit되지 않은 transaction의 토큰은 제외한다.
+     *
+     * @param userId 사용자 id(null이면 모든 사용자, user id가 없는 이전 access token)
+     * @throws ServiceOverloadedException 저장하지 못함(잠시 후 다시 시도)
+     * */
+    public void awaitPersistedForUser(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        List<Pending> items = new ArrayList<>();
+        for (Pending item : pending.values()) {
+            if (item.queued && (userId == null || userId.equals(item.row.userId()))) {
+                items.add(item);
+            }
+        }
+        if (!items.isEmpty()) {
+            persistNow(items);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // writer가 끝난 뒤에 남은(종료 직전에 예약된) 토큰
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        try {
+            flush(remaining);
+        } catch (RuntimeException e) {
+            log.error("종료 중 refresh token 저장 실패", e);
+        }
+        log.info("refresh token write-behind 종료(남은 토큰 {}개 저장)", remaining.size());
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (!closed) {
+            try {
+                Pending first = queue.take();
+                batch.add(first);
+
+                // 첫 토큰 이후 flush-interval 동안 batch-size까지 모은다.
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // close()에서 interrupt, 모은 토큰은 저장하고 종료
+                queue.drainTo(batch);
+                closed = true;
+            }
+
+            boolean allPersisted;
+            try {
+                allPersisted = flush(batch);
+            } catch (RuntimeException e) {
+                // 예상하지 못한 오류로 writer 스레드가 끝나지 않도록 한다(flush 안에서 토큰은 이미 되돌려짐)
+                log.error("refresh token 저장 중 오류", e);
+                allPersisted = false;
+            }
+            batch.clear();
+
+            if (!allPersisted && !closed) {
+                // DB 장애중에 되돌린 토큰을 바로 다시 시도하지 않도록 잠시 쉰다.
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * writer 스레드가 아직 가져가지 않은 토큰은 호출한 스레드에서 별도 transaction으로 저장하고,
+     * 가져간 토큰은 저장될때까지 기다린다.
+     * 대기 목록에서는 별도 transaction이 commit된 후에 제거한다.
+     * 저장하지 못한 토큰은 대기열로 되돌리고 ServiceOverloadedException을 던진다.
+     * */
+    private void persistNow(List<Pending> items) {
+        List<Pending> claimed = new ArrayList<>(items.size());
+        List<Pending> inFlight = new ArrayList<>();
+        for (Pending item : items) {
+            (item.claim() ? claimed : inFlight).add(item);
+        }
+
+        if (!claimed.isEmpty()) {
+            List<Pending> failed;
+            try {
+                failed = requiresNew.execute(status -> {
+                    List<Pending> rowFailures = insert(claimed);
+                    if (rowFailures.size() == claimed.size()) {
+                        status.setRollbackOnly();
+                    }
+                    return rowFailures;
+                });
+            } catch (RuntimeException e) {
+                // connection을 얻지 못했거나 commit 실패
+                log.warn("refresh token 저장 실패({}개): {}", claimed.size(), e.getMessage());
+                failed = claimed;
+            }
+            completed(claimed, failed);
+            if (!failed.isEmpty()) {
+                retryLater(failed, null);
+                throw notPersisted();
+            }
+        }
+
+        for (Pending item : inFlight) {
+            try {
+                item.persisted.get(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw notPersisted();
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("대기 중인 refresh token 저장을 기다리지 못함: {}", e.getMessage());
+                throw notPersisted();
+            }
+        }
+    }
+
+    /**
+     * writer 스레드에서 저장(transaction 없음, 문장마다 commit)
+     *
+     * @return 모두 저장했으면 true
+     * */
+    private boolean flush(List<Pending> batch) {
+        List<Pending> claimed = new ArrayList<>(batch.size());
+        for (Pending item : batch) {
+            if (item.claim()) {
+                claimed.add(item);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        List<Pending> failed = claimed;
+        RuntimeException error = null;
+        try {
+            failed = insert(claimed);
+        } catch (RuntimeException e) {
+            error = e;
+        } finally {
+            completed(claimed, failed);
+            retryLater(failed, error);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (error != null) {
+            throw error;
+        }
+        return failed.isEmpty();
+    }
+
+    /**
+     * multi-row INSERT 한번으로 저장하고, 실패하면 한 행씩 다시 저장한다.
+     * 이미 있는 토큰(이전 시도가 실제로는 commit됨)은 저장된 것으로 본다.
+     *
+     * @return 저장하지 못한 토큰
+     * */
+    private List<Pending> insert(List<Pending> items) {
+        try {
+            jdbcTemplate.update(INSERT_PREFIX + String.join(", ", Collections.nCopies(items.size(), ROW)),
+                    arguments(items));
+            return List.of();
+        } catch (DataAccessException e) {
+            // 한 행 때문에 전체가 실패했을 수 있으므로 한 행씩 다시 저장
+            log.warn("refresh token batch 저장 실패, 한 행씩 다시 저장: {}", e.getMessage());
+        }
+
+        List<Pending> failed = new ArrayList<>();
+        for (Pending item : items) {
+            try {
+                jdbcTemplate.update(INSERT_PREFIX + ROW, arguments(List.of(item)));
+            } catch (DuplicateKeyException duplicate) {
+                log.debug("이미 저장된 refresh token: userId={}", item.row.userId());
+            } catch (DataAccessException rowFailure) {
+                log.warn("refresh token 저장 실패: userId={}, {}", item.row.userId(), rowFailure.getMessage());
+                failed.add(item);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 저장한 토큰만 대기 목록에서 제거하고 기다리는 요청에 알린다.
+     * */
+    private void completed(List<Pending> items, List<Pending> failed) {
+        for (Pending item : items) {
+            if (failed.contains(item)) {
+                continue;
+            }
+            pending.remove(ByteBuffer.wrap(item.row.tokenHash()), item);
+            item.persisted.complete(null);
+        }
+    }
+
+    /**
+     * 저장하지 못한 토큰을 대기열로 되돌린다.
+     * MAX_ATTEMPTS번 실패했거나 종료 중이면 버리고, 기다리는 요청에는 실패로 알린다.
+     * */
+    private void retryLater(List<Pending> failed, RuntimeException error) {
+        for (Pending item : failed) {
+            if (++item.attempts < MAX_ATTEMPTS && !closed) {
+                item.claimed.set(false);
+                queue.offer(item);
+                continue;
+            }
+            pending.remove(ByteBuffer.wrap(item.row.tokenHash()), item);
+            item.persisted.completeExceptionally(error != null ? error
+                    : new IllegalStateException("refresh token을 저장하지 못했습니다"));
+            droppedCounter.increment();
+            log.error("refresh token 저장을 {}번 실패해서 버림: userId={}", item.attempts, item.row.userId());
+        }
+    }
+
+    private static ServiceOverloadedException notPersisted() {
+        return new ServiceOverloadedException("refresh token을 아직 저장하지 못했습니다. 잠시 후 다시 시도해주세요.",
+                RETRY_AFTER_SECONDS);
+    }
+
+    private static Object[] arguments(List<Pending> items) {
+        Object[] args = new Object[items.size() * 5];
+        int i = 0;
+        for (Pending item : items) {
+            Row row = item.row;
+            args[i++] = row.tokenHash();
+            args[i++] = row.familyId();
+            args[i++] = row.userId();
+            args[i++] = Timestamp.valueOf(row.createdAt());
+            args[i++] = Timestamp.valueOf(row.expiresAt());
+        }
+        return args;
+    }
+
+    /**
+     * 저장 대기 중인 토큰, writer 스레드와 요청 스레드 중 먼저 claim한 쪽이 저장한다.
+     * */
+    private static final class Pending {
+        final Row row;
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final CompletableFuture<Void> persisted = new CompletableFuture<>();
+        int attempts;               // 저장 실패 횟수(claim한 스레드만 변경)
+        volatile boolean queued;    // transaction이 commit되어 저장 대기열에 들어감
+
+        Pending(Row row) {
+            this.row = row;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- 최초 스키마(ddl-auto로 만들어지던 테이블)
+-- 이미 테이블이 있는 DB는 spring.flyway.baseline-on-migrate로 이 버전을 건너뛴다.
+
+CREATE TABLE IF NOT EXISTS users (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    email          VARCHAR(255) NOT NULL,
+    password       VARCHAR(255),
+    nick_name      VARCHAR(100) NOT NULL,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    role           ENUM ('ROLE_ADMIN', 'ROLE_USER') NOT NULL,
+    is_active      BIT(1),
+    last_login_at  DATETIME(6),
+    provider       VARCHAR(30),
+    provider_id    VARCHAR(100),
+    profile_image  VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    token         VARCHAR(500) NOT NULL,
+    created_at    DATETIME(6)  NOT NULL,
+    expires_at    DATETIME(6)  NOT NULL,
+    is_revoked    BIT(1)       NOT NULL,
+    last_used_at  DATETIME(6),
+    user_id       BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
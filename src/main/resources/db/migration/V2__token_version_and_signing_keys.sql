@@ -0,0 +1,22 @@
+-- users.token_version(권한 변경/비활성화시 access token 무효화), 비대칭키 서명키 테이블
+-- ddl-auto=update로 이미 만들어진 DB도 있으므로 없을때만 추가한다.
+
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+      WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND COLUMN_NAME = 'token_version') = 0,
+    'ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+CREATE TABLE IF NOT EXISTS jwt_signing_keys (
+    kid           VARCHAR(64)     NOT NULL,
+    algorithm     VARCHAR(16)     NOT NULL,
+    public_key    VARBINARY(512)  NOT NULL,
+    private_key   VARBINARY(1024) NOT NULL,
+    created_at    DATETIME(6)     NOT NULL,
+    activates_at  DATETIME(6)     NOT NULL,
+    expires_at    DATETIME(6),
+    PRIMARY KEY (kid)
+) ENGINE = InnoDB;
@@ -0,0 +1,20 @@
+-- refresh token을 원본 문자열(VARCHAR(500)) 대신 SHA-256 digest(BINARY(32))로 저장하고 unique index로 조회한다.
+
+ALTER TABLE refresh_tokens ADD COLUMN token_hash BINARY(32) NULL AFTER id;
+
+-- 기존 토큰의 digest 계산(애플리케이션과 같은 방식: SHA-256(토큰 문자열))
+UPDATE refresh_tokens SET token_hash = UNHEX(SHA2(token, 256)) WHERE token_hash IS NULL;
+
+-- 같은 토큰이 여러번 저장된 경우 가장 최근 행만 남김(unique index 생성 전)
+-- token_hash에는 아직 index가 없으므로 self join(행마다 전체 scan) 대신
+-- 중복된 token_hash별 MAX(id)를 한번에 구해서(derived table) 나머지 행을 삭제한다.
+DELETE rt FROM refresh_tokens rt
+    JOIN (SELECT token_hash, MAX(id) AS keep_id
+          FROM refresh_tokens
+          GROUP BY token_hash
+          HAVING COUNT(*) > 1) dup ON dup.token_hash = rt.token_hash AND rt.id < dup.keep_id;
+
+ALTER TABLE refresh_tokens
+    MODIFY COLUMN token_hash BINARY(32) NOT NULL,
+    ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    DROP COLUMN token;
@@ -0,0 +1,11 @@
+-- refresh token rotation : 같은 로그인에서 이어진 토큰들을 family로 묶는다.
+-- 이미 사용된 토큰이 다시 제출되면(탈취 의심) family 전체를 폐기한다.
+
+ALTER TABLE refresh_tokens ADD COLUMN family_id BINARY(16) NULL AFTER token_hash;
+
+-- 기존 토큰은 각각 하나의 family
+UPDATE refresh_tokens SET family_id = UUID_TO_BIN(UUID()) WHERE family_id IS NULL;
+
+ALTER TABLE refresh_tokens
+    MODIFY COLUMN family_id BINARY(16) NOT NULL,
+    ADD INDEX idx_refresh_tokens_family (family_id);
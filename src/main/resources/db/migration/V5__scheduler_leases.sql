@@ -0,0 +1,10 @@
+-- 여러 서버 중 한 서버만 배치 작업(만료 토큰 정리 등)을 실행하도록 하는 lease
+-- locked_until이 지나면 다른 서버가 가져갈 수 있다(lease를 가진 서버가 죽어도 작업이 멈추지 않음).
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name          VARCHAR(64)   NOT NULL,
+    owner         VARCHAR(128)  NOT NULL,
+    locked_until  DATETIME(3)   NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
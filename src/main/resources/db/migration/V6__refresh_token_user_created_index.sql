@@ -0,0 +1,3 @@
+-- 사용자별 세션 수 제한 : 사용자의 토큰을 최신순으로 고르고 오래된 토큰을 삭제할때 사용
+-- (user_id로 시작하므로 user_id FK index를 대신함)
+CREATE INDEX idx_refresh_tokens_user_created ON refresh_tokens (user_id, created_at);
@@ -0,0 +1,15 @@
+-- 서버간 캐시/폐기 상태 동기화용 변경 로그(outbox)
+-- 각 서버는 마지막으로 읽은 id 이후의 event만 primary key 범위로 읽는다(id > cursor).
+
+CREATE TABLE IF NOT EXISTS invalidation_events (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    type           VARCHAR(32)   NOT NULL,      -- ACCESS_TOKEN_REVOKED, USER_CHANGED
+    user_id        BIGINT        NULL,
+    subject        VARCHAR(255)  NULL,          -- jti(토큰 폐기) 또는 이메일(사용자 변경)
+    token_version  INT           NULL,
+    expires_at     DATETIME(3)   NULL,          -- 폐기된 토큰의 만료시간
+    origin         VARCHAR(128)  NOT NULL,      -- 발행한 서버(NodeId)
+    created_at     DATETIME(3)   NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_invalidation_events_created_at (created_at)
+) ENGINE = InnoDB;
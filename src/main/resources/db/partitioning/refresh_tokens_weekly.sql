@@ -0,0 +1,54 @@
+-- 선택 사항 : refresh_tokens를 expires_at 기준 주 단위 range partition으로 바꾼다.
+-- 만료된 토큰을 행 단위로 DELETE하는 대신 partition을 통째로 DROP(메타데이터 변경)하여 정리 비용을 일정하게 만든다.
+--
+-- Flyway migration이 아니므로(db/migration 밖) 점검 시간에 직접 실행한다. 테이블 전체를 다시 쓰므로 오래 걸릴 수 있다.
+-- 실행 후 auth.refresh-token.partitioning.enabled=true로 설정하면
+--   - RefreshTokenPartitionManager가 주 단위 partition을 미리 만들고(create ahead), 만료된 partition을 DROP한다.
+--   - RefreshTokenPurgeJob은 만료된 토큰은 건너뛰고 폐기된 토큰만 삭제한다.
+--
+-- MySQL partition 제약
+--   - 모든 unique key(primary key 포함)에 partition 컬럼(expires_at)이 들어가야 한다.
+--     token_hash는 SHA-256(jti 포함 토큰)이므로 (token_hash, expires_at)으로 바꿔도 조회 결과는 같다.
+--   - partition된 InnoDB 테이블은 foreign key를 지원하지 않으므로 users FK를 제거한다.
+--     (사용자 삭제시 refresh token 정리는 애플리케이션에서 처리: deleteByUserEmail)
+
+ALTER TABLE refresh_tokens DROP FOREIGN KEY fk_refresh_token_user;
+
+ALTER TABLE refresh_tokens
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, expires_at),
+    DROP INDEX uk_refresh_tokens_token_hash,
+    ADD UNIQUE INDEX uk_refresh_tokens_token_hash (token_hash, expires_at);
+
+-- 기존 행이 들어갈 주 단위 partition을 처음부터 모두 만든다(p_yyyyMMdd : 이 날짜 0시 이전에 만료, 월요일 기준).
+-- pmax(MAXVALUE)는 비워두고, 이후 partition은 RefreshTokenPartitionManager가 빈 pmax를 나눠서 만든다(메타데이터만 변경).
+-- pmax에 행이 있으면 RefreshTokenPartitionManager는 나누지 않고 경고만 남긴다(REORGANIZE가 행을 모두 복사하므로)
+--
+-- @cover_days : 지금부터 partition을 만들어 둘 기간(일), jwt.refresh-token-expiration + ahead-weeks보다 길게 잡는다.
+SET @cover_days = 28;
+SET SESSION group_concat_max_len = 1048576;
+
+SELECT DATE(MIN(expires_at)) - INTERVAL WEEKDAY(MIN(expires_at)) DAY + INTERVAL 7 DAY,
+       GREATEST(DATE(COALESCE(MAX(expires_at), NOW())), CURDATE() + INTERVAL @cover_days DAY)
+INTO @first_bound, @last_date
+FROM refresh_tokens;
+SET @first_bound = COALESCE(@first_bound, CURDATE() - INTERVAL WEEKDAY(CURDATE()) DAY + INTERVAL 7 DAY);
+
+-- 마지막 partition의 상한은 @last_date보다 큼
+SET @partitions = (
+    WITH RECURSIVE bounds (bound) AS (
+        SELECT CAST(@first_bound AS DATE)
+        UNION ALL
+        SELECT bound + INTERVAL 7 DAY FROM bounds WHERE bound <= @last_date
+    )
+    SELECT GROUP_CONCAT(
+               CONCAT('PARTITION p_', DATE_FORMAT(bound, '%Y%m%d'), ' VALUES LESS THAN (TO_DAYS(''', bound, '''))')
+               ORDER BY bound SEPARATOR ', ')
+    FROM bounds
+);
+
+SET @ddl = CONCAT('ALTER TABLE refresh_tokens PARTITION BY RANGE (TO_DAYS(expires_at)) (',
+                  @partitions, ', PARTITION pmax VALUES LESS THAN MAXVALUE)');
+PREPARE partition_refresh_tokens FROM @ddl;
+EXECUTE partition_refresh_tokens;
+DEALLOCATE PREPARE partition_refresh_tokens;
@@ -0,0 +1,127 @@
+package com.example.auth.invalidation;
+
+import com.example.auth.scheduling.SchedulerLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 두 서버(transport 인스턴스)가 같은 DB의 invalidation_events로 event를 주고받는지 확인
+ * MySQL 대신 H2(MySQL mode)를 사용한다.
+ * */
+class JdbcPollingInvalidationTransportTest {
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:invalidation;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS invalidation_events");
+        jdbcTemplate.execute("""
+                CREATE TABLE invalidation_events (
+                    id             BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    type           VARCHAR(32)   NOT NULL,
+                    user_id        BIGINT        NULL,
+                    subject        VARCHAR(255)  NULL,
+                    token_version  INT           NULL,
+                    expires_at     DATETIME(3)   NULL,
+                    origin         VARCHAR(128)  NOT NULL,
+                    created_at     DATETIME(3)   NOT NULL
+                )""");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void deliversEventsPublishedAfterStartInOrder() {
+        jdbcTemplate.update("INSERT INTO invalidation_events (type, subject, origin, created_at) " +
+                "VALUES ('ACCESS_TOKEN_REVOKED', 'before-start', 'node-a', LOCALTIMESTAMP(3))");
+
+        JdbcPollingInvalidationTransport nodeA = transport();
+        JdbcPollingInvalidationTransport nodeB = transport();
+        List<InvalidationEvent> received = new ArrayList<>();
+        nodeB.subscribe(received::addAll);
+        nodeB.poll();   // 시작 위치(현재 마지막 id)를 정함
+
+        Instant expiresAt = Instant.now().plus(10, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS);
+        nodeA.publish(InvalidationEvent.accessTokenRevoked("jti-1", expiresAt, "node-a"));
+        nodeA.publish(InvalidationEvent.userChanged(7L, "user@example.com", 3, "node-a"));
+        nodeB.poll();
+
+        assertThat(received).extracting(InvalidationEvent::type).containsExactly(
+                InvalidationEvent.Type.ACCESS_TOKEN_REVOKED, InvalidationEvent.Type.USER_CHANGED);
+        assertThat(received.get(0).subject()).isEqualTo("jti-1");
+        assertThat(received.get(0).expiresAt()).isEqualTo(expiresAt);
+        assertThat(received.get(1).userId()).isEqualTo(7L);
+        assertThat(received.get(1).tokenVersion()).isEqualTo(3);
+        assertThat(meterRegistry.get("auth.invalidation.lag").timer().count()).isEqualTo(2);
+
+        // 이미 읽은 event는 다시 전달하지 않음
+        nodeB.poll();
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    void deliversEventCommittedAfterLaterId() {
+        JdbcPollingInvalidationTransport node = transport();
+        List<InvalidationEvent> received = new ArrayList<>();
+        node.subscribe(received::addAll);
+        node.poll();
+
+        // id 1은 아직 commit되지 않은 transaction이라서 id 2만 보이는 상황
+        jdbcTemplate.update("INSERT INTO invalidation_events (id, type, subject, origin, created_at) " +
+                "VALUES (2, 'ACCESS_TOKEN_REVOKED', 'second', 'node-a', LOCALTIMESTAMP(3))");
+        node.poll();
+        jdbcTemplate.update("INSERT INTO invalidation_events (id, type, subject, origin, created_at) " +
+                "VALUES (1, 'ACCESS_TOKEN_REVOKED', 'first', 'node-a', LOCALTIMESTAMP(3))");
+        node.poll();
+
+        assertThat(received).extracting(InvalidationEvent::subject).containsExactly("second", "first");
+    }
+
+    @Test
+    void replaysStillValidEventsOnStart() {
+        Instant future = Instant.now().plus(5, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS);
+        Instant past = Instant.now().minus(5, ChronoUnit.MINUTES);
+        insert("ACCESS_TOKEN_REVOKED", "expired-jti", past, LocalDateTime.now().minusMinutes(15));
+        insert("ACCESS_TOKEN_REVOKED", "live-jti", future, LocalDateTime.now().minusMinutes(5));
+        insert("USER_CHANGED", "old@example.com", null, LocalDateTime.now().minusMinutes(5));
+        insert("USER_CHANGED", "recent@example.com", null, LocalDateTime.now().minusSeconds(10));
+
+        JdbcPollingInvalidationTransport node = transport();
+        List<InvalidationEvent> received = new ArrayList<>();
+        node.subscribe(received::addAll);
+        node.afterSingletonsInstantiated();
+
+        // 만료되지 않은 폐기 토큰, claims-max-staleness(60초) 안의 사용자 변경만 재생
+        assertThat(received).extracting(InvalidationEvent::subject).containsExactly("live-jti", "recent@example.com");
+        assertThat(meterRegistry.get("auth.invalidation.lag").timer().count()).isZero();
+
+        // 재생한 event는 poll에서 다시 전달하지 않음
+        node.poll();
+        assertThat(received).hasSize(2);
+    }
+
+    private void insert(String type, String subject, Instant expiresAt, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO invalidation_events (type, subject, expires_at, origin, created_at) " +
+                        "VALUES (?, ?, ?, 'node-a', ?)",
+                type, subject, expiresAt == null ? null : Timestamp.from(expiresAt), Timestamp.valueOf(createdAt));
+    }
+
+    private JdbcPollingInvalidationTransport transport() {
+        return new JdbcPollingInvalidationTransport(jdbcTemplate, new SchedulerLease(jdbcTemplate), meterRegistry,
+                100, 10_000L, 86_400_000L, 60_000L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * exp 구간별 bucket 기록/조회, index가 한바퀴 돌았을때의 교체, 만료된 bucket 정리 확인
+ * 시간은 테스트에서 직접 움직인다.
+ * */
+class AccessTokenRevocationListTest {
+    private static final Duration WIDTH = Duration.ofMinutes(1);
+    private static final Duration ACCESS = Duration.ofMinutes(15);
+    private static final int SIZE = 17;     // access / width + 2
+
+    private final AtomicReference<Instant> clock = new AtomicReference<>(Instant.parse("2026-01-01T00:00:30Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccessTokenRevocationList revocationList = new AccessTokenRevocationList(
+            meterRegistry, ACCESS.toMillis(), WIDTH.toMillis(), 64, clock::get);
+
+    @Test
+    void revokesWithinWindow() {
+        Instant expiresAt = clock.get().plus(Duration.ofMinutes(5));
+        revocationList.revoke("a", expiresAt);
+        revocationList.revoke("b", expiresAt.plusSeconds(10));     // 같은 구간
+
+        assertThat(revocationList.isRevoked("a", expiresAt)).isTrue();
+        assertThat(revocationList.isRevoked("b", expiresAt.plusSeconds(10))).isTrue();
+        assertThat(revocationList.isRevoked("c", expiresAt)).isFalse();
+        // 다른 구간의 exp로는 찾지 않는다
+        assertThat(revocationList.isRevoked("a", expiresAt.plus(WIDTH))).isFalse();
+        assertThat(size()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresExpiredOrIncompleteTokens() {
+        revocationList.revoke("expired", clock.get());
+        revocationList.revoke(null, clock.get().plus(WIDTH));
+        revocationList.revoke("no-exp", null);
+
+        assertThat(revocationList.isRevoked("expired", clock.get())).isFalse();
+        assertThat(revocationList.isRevoked(null, clock.get().plus(WIDTH))).isFalse();
+        assertThat(revocationList.isRevoked("no-exp", null)).isFalse();
+        assertThat(size()).isZero();
+    }
+
+    @Test
+    void replacesExpiredBucketWhenIndexWraps() {
+        Instant old = clock.get().plus(WIDTH);
+        revocationList.revoke("old", old);
+
+        // old가 만료된 뒤, 한바퀴 돌아 같은 index를 쓰는 구간에 폐기
+        clock.set(old.plus(WIDTH));
+        Instant wrapped = old.plus(WIDTH.multipliedBy(SIZE));
+        revocationList.revoke("new", wrapped);
+
+        assertThat(revocationList.isRevoked("new", wrapped)).isTrue();
+        assertThat(revocationList.isRevoked("old", old)).isFalse();
+        assertThat(size()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresOlderWindowWhenNewerBucketOccupiesIndex() {
+        Instant older = clock.get().plus(WIDTH);
+        Instant newer = older.plus(WIDTH.multipliedBy(SIZE));
+        revocationList.revoke("newer", newer);
+
+        // 같은 index에 더 최근 구간이 있으면 기록하지 않고, 기존 bucket도 그대로 둔다
+        revocationList.revoke("older", older);
+
+        assertThat(revocationList.isRevoked("older", older)).isFalse();
+        assertThat(revocationList.isRevoked("newer", newer)).isTrue();
+        assertThat(size()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsOnlyExpiredBuckets() {
+        Instant soon = clock.get().plus(WIDTH);
+        Instant later = clock.get().plus(Duration.ofMinutes(10));
+        revocationList.revoke("soon", soon);
+        revocationList.revoke("later", later);
+
+        revocationList.dropExpired();
+        assertThat(size()).isEqualTo(2);
+
+        clock.set(soon.plus(WIDTH));
+        revocationList.dropExpired();
+
+        assertThat(size()).isEqualTo(1);
+        assertThat(revocationList.isRevoked("soon", soon)).isFalse();
+        assertThat(revocationList.isRevoked("later", later)).isTrue();
+    }
+
+    @Test
+    void staysExactWhenBucketExceedsExpectedSize() {
+        // expected-per-bucket(64)의 10배 : Bloom filter 오탐이 늘어도 fingerprint 집합이 정확히 판단한다
+        Instant expiresAt = clock.get().plus(Duration.ofMinutes(5));
+        int revoked = 640;
+        for (int i = 0; i < revoked; i++) {
+            revocationList.revoke("revoked-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < revoked; i++) {
+            assertThat(revocationList.isRevoked("revoked-" + i, expiresAt)).isTrue();
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(revocationList.isRevoked("valid-" + i, expiresAt)).isFalse();
+        }
+        assertThat(size()).isEqualTo(revoked);
+    }
+
+    private double size() {
+        return meterRegistry.get("jwt.revocation.size").gauge().value();
+    }
+}
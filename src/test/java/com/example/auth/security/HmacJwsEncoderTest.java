@@ -0,0 +1,65 @@
+package com.example.auth.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HmacJwsEncoder가 jjwt builder와 같은 토큰을 만드는지 확인
+ * */
+class HmacJwsEncoderTest {
+    private static final long ISSUED_AT = 1_700_000_000_123L;
+    private static final long EXPIRES_AT = ISSUED_AT + 600_000L;
+
+    @Test
+    void accessTokenIsIdenticalToJjwt() {
+        SecretKey key = key("mySecretKeyForJWTTokenGenerationThisKeyMustBeLongAndVeryStrongHS512Algorithm");
+
+        String expected = Jwts.builder()
+                .subject("user@example.com")
+                .claim("userId", 42L)
+                .claim("type", VerifiedToken.TYPE_ACCESS)
+                .claim("role", "ROLE_USER")
+                .claim("ver", 3)
+                .issuedAt(new Date(ISSUED_AT))
+                .expiration(new Date(EXPIRES_AT))
+                .signWith(key)
+                .compact();
+
+        String actual = new HmacJwsEncoder(key)
+                .encode("user@example.com", null, 42L, VerifiedToken.TYPE_ACCESS, "ROLE_USER", 3, ISSUED_AT, EXPIRES_AT);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void refreshTokenWithEscapedSubjectIsIdenticalToJjwt() {
+        // 32바이트 키이면 jjwt는 HS256을 선택한다
+        SecretKey key = key("0123456789abcdef0123456789abcdef");
+
+        String subject = "quote\"back\\slash\tuser@예시.com";
+        String expected = Jwts.builder()
+                .subject(subject)
+                .id("5f0c7a8e-1d2b-4c3d-9e8f-0a1b2c3d4e5f")
+                .claim("type", VerifiedToken.TYPE_REFRESH)
+                .issuedAt(new Date(ISSUED_AT))
+                .expiration(new Date(EXPIRES_AT))
+                .signWith(key)
+                .compact();
+
+        String actual = new HmacJwsEncoder(key)
+                .encode(subject, "5f0c7a8e-1d2b-4c3d-9e8f-0a1b2c3d4e5f", null, VerifiedToken.TYPE_REFRESH, null, null, ISSUED_AT, EXPIRES_AT);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static SecretKey key(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 속도 제한 응답(429, Retry-After)과 이메일을 읽은 뒤 body를 controller에 다시 넘겨주는지 확인
+ * */
+class LoginRateLimitFilterTest {
+    private static final String BODY = "{\"email\":\" User@Example.com \",\"password\":\"password1234\"}";
+
+    @Test
+    void rejectsWithRetryAfterWhenIpBucketIsEmpty() throws Exception {
+        LoginRateLimitFilter filter = filter(1, 100);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(login(BODY), first, new MockFilterChain());
+        assertThat(first.getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login(BODY), second, chain);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader("Retry-After")).isEqualTo("1");   // 분당 60개 = 1초에 1개
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rejectsByEmailAcrossAddresses() throws Exception {
+        LoginRateLimitFilter filter = filter(100, 1);
+
+        MockHttpServletRequest first = login(BODY);
+        first.setRemoteAddr("10.0.0.1");
+        filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+
+        // 대소문자, 공백이 달라도 같은 계정
+        MockHttpServletRequest second = login("{\"email\":\"user@example.com\",\"password\":\"x\"}");
+        second.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(second, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void replaysCachedBodyToController() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter(100, 100).doFilter(login(BODY), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(forwarded.getReader().readLine()).isEqualTo(BODY);
+    }
+
+    @Test
+    void rejectsOversizedLoginBodyInsteadOfSkippingEmailLimit() throws Exception {
+        LoginRateLimitFilter filter = filter(100, 1);
+        filter.doFilter(login(BODY), new MockHttpServletResponse(), new MockFilterChain());
+
+        // 공백으로 4KB를 넘겨도 이메일 제한을 건너뛰고 controller로 넘어가지 않는다
+        String padded = "{\"email\":\"user@example.com\"," + " ".repeat(5_000) + "\"password\":\"x\"}";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login(padded), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rejectsOversizedBodyWithoutContentLength() throws Exception {
+        // chunked 전송처럼 Content-Length를 모르는 경우
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"user@example.com\",\"password\":\"" + "x".repeat(10_000) + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter(100, 100).doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void notifiesReadListenerForCachedBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter(100, 100).doFilter(login(BODY), new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        List<String> calls = new ArrayList<>();
+        StringBuilder read = new StringBuilder();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("available");
+                byte[] buffer = new byte[16];
+                int n;
+                while (in.isReady() && (n = in.read(buffer)) != -1) {
+                    read.append(new String(buffer, 0, n, StandardCharsets.UTF_8));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("all");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertThat(calls).containsExactly("available", "all");
+        assertThat(read.toString()).isEqualTo(BODY);
+        assertThat(in.isFinished()).isTrue();
+    }
+
+    private static LoginRateLimitFilter filter(long ipBurst, long emailBurst) {
+        return new LoginRateLimitFilter(JsonMapper.builder().build(), new SimpleMeterRegistry(),
+                true, 60, ipBurst, 10, emailBurst, 1_000);
+    }
+
+    private static MockHttpServletRequest login(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
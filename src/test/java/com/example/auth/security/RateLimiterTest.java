@@ -0,0 +1,65 @@
+package com.example.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA 계산(burst, refill, 다시 시도할 수 있을때까지 남은 시간) 확인
+ * 시간은 테스트에서 직접 움직인다.
+ * */
+class RateLimiterTest {
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(6);     // 분당 10개
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final RateLimiter limiter = new RateLimiter(10, 5, 1_000, clock::get);
+
+    @Test
+    void allowsBurstThenRejectsWithTimeUntilNextToken() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("key")).isZero();
+        }
+        assertThat(limiter.tryAcquire("key")).isEqualTo(INTERVAL);
+
+        // 거절된 요청은 bucket을 비우지 않는다
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("key")).isEqualTo(INTERVAL - TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        clock.addAndGet(INTERVAL);
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isEqualTo(INTERVAL);
+
+        // 가득 찰 때까지 기다려도 burst 이상은 쌓이지 않는다
+        clock.addAndGet(INTERVAL * 100);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("key")).isZero();
+        }
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void keysAreIndependent() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a");
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(LoginRateLimitFilter.retryAfterSeconds(1L)).isEqualTo(1L);
+        assertThat(LoginRateLimitFilter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(6))).isEqualTo(6L);
+        assertThat(LoginRateLimitFilter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(6) + 1)).isEqualTo(7L);
+    }
+}
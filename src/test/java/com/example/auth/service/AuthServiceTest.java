@@ -0,0 +1,211 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.LoginResponse;
+import com.example.auth.dto.RequestLogin;
+import com.example.auth.entity.User;
+import com.example.auth.metrics.AuthMetrics;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.repository.UserRepository;
+import com.example.auth.security.CustomUserDetails;
+import com.example.auth.security.JwtKeyManager;
+import com.example.auth.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 비밀번호 hash(matches, encode)를 하는 동안 DB connection을 잡고 있지 않은지 확인
+ * connection 수를 세는 DataSource(H2)와 DataSourceTransactionManager를 사용하고,
+ * service는 @Transactional이 적용되는 proxy로 감싸서 메소드에 transaction이 다시 붙으면 실패하게 한다.
+ * */
+class AuthServiceTest {
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThisKeyMustBeLongAndVeryStrongHS512Algorithm";
+    private static final String EMAIL = "user@example.com";
+    private static final String PASSWORD = "password1234";
+
+    private final CountingDataSource dataSource = new CountingDataSource();
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    private final RecordingPasswordEncoder passwordEncoder = new RecordingPasswordEncoder(dataSource);
+    /** 단계별로 열려있던 connection 수 */
+    private final Map<String, Integer> connectionsAt = new ConcurrentHashMap<>();
+    private final AtomicReference<String> updatedFrom = new AtomicReference<>();
+    private final User user = User.builder().id(1L).email(EMAIL).password("hash:" + PASSWORD).build();
+
+    @Test
+    void loginVerifiesPasswordWithoutHoldingConnection() {
+        LoginResponse response = authService().login(new RequestLogin(EMAIL, PASSWORD));
+
+        assertThat(response.getRefreshToken()).isNotBlank();
+        assertThat(passwordEncoder.connectionsAt).containsEntry("matches", 0);
+        assertThat(passwordEncoder.transactionActiveAt).containsEntry("matches", false);
+        // 토큰 저장은 transaction(connection 1개) 안에서
+        assertThat(connectionsAt).containsEntry("refresh-token.save", 1);
+        assertThat(dataSource.open).hasValue(0);
+    }
+
+    @Test
+    void loginExVerifiesPasswordWithoutHoldingConnection() {
+        LoginResponse response = authService().loginEx(new RequestLogin(EMAIL, PASSWORD));
+
+        assertThat(response.getRefreshToken()).isNotBlank();
+        assertThat(passwordEncoder.connectionsAt).containsEntry("matches", 0);
+        assertThat(passwordEncoder.transactionActiveAt).containsEntry("matches", false);
+        assertThat(connectionsAt).containsEntry("refresh-token.save", 1);
+    }
+
+    @Test
+    void rehashesOutsideTransactionAndSavesWithTokenIssue() {
+        passwordEncoder.upgrade = true;
+        String oldHash = user.getPassword();
+
+        authService().login(new RequestLogin(EMAIL, PASSWORD));
+
+        assertThat(passwordEncoder.connectionsAt).containsEntry("encode", 0);
+        assertThat(connectionsAt).containsEntry("user.updatePasswordHash", 1);
+        assertThat(connectionsAt).containsEntry("refresh-token.save", 1);
+        assertThat(updatedFrom).hasValue(oldHash);
+    }
+
+    private AuthService authService() {
+        JwtKeyManager keyManager = new JwtKeyManager(null, SECRET, JwtKeyManager.Algorithm.HMAC,
+                604_800_000L, 600_000L, 604_800_000L, 60_000L);
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 600_000L, 604_800_000L, keyManager);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        UserRepository userRepository = stub(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByEmail" -> Optional.of(user);
+            case "getReferenceById" -> user;
+            case "updatePasswordHash" -> {
+                connectionsAt.put("user.updatePasswordHash", dataSource.open.get());
+                updatedFrom.set((String) args[1]);
+                yield 1;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        RefreshTokenRepository refreshTokenRepository = stub(RefreshTokenRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "deleteActiveExceptNewest" -> 0;
+            case "save" -> {
+                connectionsAt.put("refresh-token.save", dataSource.open.get());
+                yield args[0];
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        RefreshTokenService refreshTokenService = new RefreshTokenService(
+                refreshTokenRepository, userRepository, jwtTokenProvider,
+                new RefreshTokenWriteBehind(new JdbcTemplate(), transactionManager, meterRegistry, false, 5, 100, 10_000),
+                new LastLoginBuffer(new JdbcTemplate(), meterRegistry, 500, 100_000),
+                10_000, 10);
+
+        // CustomUserDetailsService + DaoAuthenticationProvider와 같은 순서(조회 후 비밀번호 검증)
+        AuthenticationManager authenticationManager = authentication -> {
+            if (!passwordEncoder.matches((String) authentication.getCredentials(), user.getPassword())) {
+                throw new BadCredentialsException("invalid");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(new CustomUserDetails(user), null, List.of());
+        };
+
+        AuthService service = new AuthService(userRepository, refreshTokenService, passwordEncoder, jwtTokenProvider,
+                authenticationManager, null, new AuthMetrics(meterRegistry), new TransactionTemplate(transactionManager));
+
+        ProxyFactory factory = new ProxyFactory(service);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (AuthService) factory.getProxy();
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withObjectMethods = (proxy, method, args) -> switch (method.getName()) {
+            case "toString" -> type.getSimpleName() + "Stub";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> handler.invoke(proxy, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, withObjectMethods));
+    }
+
+    /**
+     * 열려있는(close되지 않은) connection 수를 세는 DataSource
+     * */
+    private static final class CountingDataSource extends DelegatingDataSource {
+        final AtomicInteger open = new AtomicInteger();
+
+        CountingDataSource() {
+            super(new DriverManagerDataSource("jdbc:h2:mem:auth-service;DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            open.incrementAndGet();
+            AtomicInteger closed = new AtomicInteger();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && closed.getAndIncrement() == 0) {
+                            open.decrementAndGet();
+                        }
+                        return method.invoke(connection, args);
+                    });
+        }
+    }
+
+    /**
+     * hash 대신 문자열을 붙이는 PasswordEncoder, 호출될때 열려있던 connection 수와 transaction 여부를 기록한다.
+     * */
+    private static final class RecordingPasswordEncoder implements PasswordEncoder {
+        final CountingDataSource dataSource;
+        final Map<String, Integer> connectionsAt = new ConcurrentHashMap<>();
+        final Map<String, Boolean> transactionActiveAt = new ConcurrentHashMap<>();
+        volatile boolean upgrade;
+
+        RecordingPasswordEncoder(CountingDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            record("encode");
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            record("matches");
+            return ("hash:" + rawPassword).equals(encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return upgrade;
+        }
+
+        private void record(String operation) {
+            connectionsAt.put(operation, dataSource.open.get());
+            transactionActiveAt.put(operation, TransactionSynchronizationManager.isActualTransactionActive());
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.RefreshToken;
+import com.example.auth.entity.User;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.repository.RefreshTokenView;
+import com.example.auth.repository.UserRepository;
+import com.example.auth.security.JwtKeyManager;
+import com.example.auth.security.JwtTokenProvider;
+import com.example.auth.security.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * refresh token rotation 결과(ROTATED, CONCURRENT, REUSED, EXPIRED, REVOKED)와
+ * 재사용 감지시 family 폐기가 rollback되지 않는지, 같은 토큰으로 동시에 요청했을때 하나만 rotation되는지 확인
+ * DB 대신 조건부 UPDATE(markUsed)를 원자적으로 처리하는 메모리 repository를 사용한다.
+ * */
+class RefreshTokenServiceTest {
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThisKeyMustBeLongAndVeryStrongHS512Algorithm";
+    private static final String EMAIL = "user@example.com";
+
+    private final User user = User.builder().id(1L).email(EMAIL).build();
+    private final InMemoryRefreshTokens tokens = new InMemoryRefreshTokens(user);
+
+    @Test
+    void rotatesUnusedTokenWithinSameFamily() {
+        RefreshTokenService service = service(10_000);
+        String issued = service.issue(user);
+
+        RefreshTokenService.Rotation rotation = service.rotate(issued, EMAIL);
+
+        assertThat(rotation.status()).isEqualTo(RefreshTokenService.Status.ROTATED);
+        assertThat(rotation.user().id()).isEqualTo(1L);
+        assertThat(tokens.find(rotation.refreshToken()).getFamilyId()).isEqualTo(tokens.find(issued).getFamilyId());
+        assertThat(tokens.find(issued).getLastUsedAt()).isNotNull();
+    }
+
+    @Test
+    void rejectsRecentlyUsedTokenWithinGraceWithoutRevoking() {
+        RefreshTokenService service = service(10_000);
+        String issued = service.issue(user);
+        String rotated = service.rotate(issued, EMAIL).refreshToken();
+
+        assertThat(service.rotate(issued, EMAIL).status()).isEqualTo(RefreshTokenService.Status.CONCURRENT);
+        assertThat(tokens.find(rotated).isRevoked()).isFalse();
+        assertThat(service.rotate(rotated, EMAIL).status()).isEqualTo(RefreshTokenService.Status.ROTATED);
+    }
+
+    @Test
+    void revokesFamilyWhenUsedTokenIsReusedAfterGrace() {
+        RefreshTokenService service = service(0);
+        String issued = service.issue(user);
+        String rotated = service.rotate(issued, EMAIL).refreshToken();
+
+        assertThat(service.rotate(issued, EMAIL).status()).isEqualTo(RefreshTokenService.Status.REUSED);
+        assertThat(tokens.find(issued).isRevoked()).isTrue();
+        assertThat(tokens.find(rotated).isRevoked()).isTrue();
+        // 정상 사용자가 가진 최신 토큰도 더 이상 사용할 수 없다
+        assertThat(service.rotate(rotated, EMAIL).status()).isEqualTo(RefreshTokenService.Status.REVOKED);
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        RefreshTokenService service = service(10_000);
+        String issued = service.issue(user);
+        tokens.find(issued).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        assertThat(service.rotate(issued, EMAIL).status()).isEqualTo(RefreshTokenService.Status.EXPIRED);
+        assertThat(tokens.find(issued).getLastUsedAt()).isNull();
+    }
+
+    @Test
+    void rejectsTokenOfRevokedFamily() {
+        RefreshTokenService service = service(10_000);
+        String issued = service.issue(user);
+        tokens.find(issued).setRevoked(true);
+
+        assertThat(service.rotate(issued, EMAIL).status()).isEqualTo(RefreshTokenService.Status.REVOKED);
+    }
+
+    @Test
+    void rejectsUnknownToken() {
+        assertThat(service(10_000).rotate("unknown", EMAIL).status()).isEqualTo(RefreshTokenService.Status.NOT_FOUND);
+    }
+
+    @Test
+    void commitsFamilyRevocationEvenThoughRefreshIsRejected() {
+        RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+        RefreshTokenService service = transactional(service(0), transactionManager);
+        String issued = service.issue(user);
+        String rotated = service.rotate(issued, EMAIL).refreshToken();
+        transactionManager.reset();
+
+        // 거절 결과를 반환(예외 아님)하므로 family 폐기 UPDATE가 rollback되지 않고 commit된다
+        assertThat(service.rotate(issued, EMAIL).status()).isEqualTo(RefreshTokenService.Status.REUSED);
+        assertThat(transactionManager.commits).hasValue(1);
+        assertThat(transactionManager.rollbacks).hasValue(0);
+        assertThat(tokens.find(rotated).isRevoked()).isTrue();
+    }
+
+    @Test
+    void rotatesOnlyOnceWhenSameTokenIsUsedConcurrently() throws Exception {
+        RefreshTokenService service = service(10_000);
+        String issued = service.issue(user);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<RefreshTokenService.Rotation> rotations = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<RefreshTokenService.Rotation>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return service.rotate(issued, EMAIL);
+                }));
+            }
+            start.countDown();
+            for (Future<RefreshTokenService.Rotation> future : futures) {
+                rotations.add(future.get());
+            }
+        }
+
+        assertThat(rotations).extracting(RefreshTokenService.Rotation::status).containsExactlyInAnyOrder(
+                RefreshTokenService.Status.ROTATED, RefreshTokenService.Status.CONCURRENT);
+        String rotated = rotations.stream()
+                .filter(r -> r.status() == RefreshTokenService.Status.ROTATED)
+                .findFirst().orElseThrow().refreshToken();
+        // 동시 요청은 탈취로 보지 않으므로 새 토큰은 계속 사용할 수 있다
+        assertThat(tokens.find(rotated).isRevoked()).isFalse();
+        assertThat(tokens.size()).isEqualTo(2);
+    }
+
+    private RefreshTokenService service(long reuseGraceMillis) {
+        JwtKeyManager keyManager = new JwtKeyManager(null, SECRET, JwtKeyManager.Algorithm.HMAC,
+                604_800_000L, 600_000L, 604_800_000L, 60_000L);
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 600_000L, 604_800_000L, keyManager);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RefreshTokenWriteBehind writeBehind = new RefreshTokenWriteBehind(
+                new JdbcTemplate(), new RecordingTransactionManager(), meterRegistry, false, 5, 100, 10_000);
+        LastLoginBuffer lastLoginBuffer = new LastLoginBuffer(new JdbcTemplate(), meterRegistry, 500, 100_000);
+
+        return new RefreshTokenService(tokens.repository(), tokens.users(), jwtTokenProvider,
+                writeBehind, lastLoginBuffer, reuseGraceMillis, 10);
+    }
+
+    /**
+     * transaction(@Transactional)을 적용한 proxy, application context 없이 commit/rollback 결과만 확인한다.
+     * */
+    private static RefreshTokenService transactional(RefreshTokenService service, RecordingTransactionManager transactionManager) {
+        ProxyFactory factory = new ProxyFactory(service);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (RefreshTokenService) factory.getProxy();
+    }
+
+    /**
+     * commit/rollback 횟수만 세는 transaction manager
+     * */
+    private static final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger rollbacks = new AtomicInteger();
+
+        void reset() {
+            commits.set(0);
+            rollbacks.set(0);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+
+    /**
+     * refresh_tokens 테이블 대신 사용하는 메모리 저장소
+     * markUsed는 DB의 조건부 UPDATE처럼 확인과 변경을 한번에(lock 안에서) 처리한다.
+     * */
+    private static final class InMemoryRefreshTokens {
+        private final User user;
+        private final List<RefreshToken> rows = new ArrayList<>();
+
+        InMemoryRefreshTokens(User user) {
+            this.user = user;
+        }
+
+        synchronized RefreshToken find(String refreshToken) {
+            byte[] tokenHash = TokenDigest.sha256(refreshToken);
+            return rows.stream().filter(row -> Arrays.equals(row.getTokenHash(), tokenHash)).findFirst().orElseThrow();
+        }
+
+        synchronized int size() {
+            return rows.size();
+        }
+
+        RefreshTokenRepository repository() {
+            return stub(RefreshTokenRepository.class, (proxy, method, args) -> {
+                synchronized (this) {
+                    return switch (method.getName()) {
+                        case "deleteActiveExceptNewest" -> 0;
+                        case "save" -> {
+                            rows.add((RefreshToken) args[0]);
+                            yield args[0];
+                        }
+                        case "markUsed" -> markUsed((byte[]) args[0], (LocalDateTime) args[1]);
+                        case "findViewByTokenHash" -> findView((byte[]) args[0]);
+                        case "revokeFamily" -> revokeFamily((byte[]) args[0]);
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                }
+            });
+        }
+
+        UserRepository users() {
+            return stub(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+                case "getReferenceById" -> user;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        private int markUsed(byte[] tokenHash, LocalDateTime now) {
+            for (RefreshToken row : rows) {
+                if (Arrays.equals(row.getTokenHash(), tokenHash) && row.getLastUsedAt() == null
+                        && !row.isRevoked() && row.getExpiresAt().isAfter(now)) {
+                    row.setLastUsedAt(now);
+                    return 1;
+                }
+            }
+            return 0;
+        }
+
+        private Optional<RefreshTokenView> findView(byte[] tokenHash) {
+            return rows.stream()
+                    .filter(row -> Arrays.equals(row.getTokenHash(), tokenHash))
+                    .findFirst()
+                    .map(row -> new RefreshTokenView(row.getId(), row.getFamilyId(), row.getExpiresAt(),
+                            row.isRevoked(), row.getLastUsedAt(), user.getId(), user.getEmail(), user.getRole(),
+                            user.getIsActive(), user.getTokenVersion()));
+        }
+
+        private int revokeFamily(byte[] familyId) {
+            int revoked = 0;
+            for (RefreshToken row : rows) {
+                if (Arrays.equals(row.getFamilyId(), familyId) && !row.isRevoked()) {
+                    row.setRevoked(true);
+                    revoked++;
+                }
+            }
+            return revoked;
+        }
+
+        private static <T> T stub(Class<T> type, InvocationHandler handler) {
+            InvocationHandler withObjectMethods = (proxy, method, args) -> switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "Stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> handler.invoke(proxy, method, args);
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, withObjectMethods));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.auth.service;
+
+import com.example.auth.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 요청 스레드에서 저장(awaitPersisted)하다 실패하면 토큰을 버리지 않고 503으로 알리는지,
+ * 이미 저장된 토큰(duplicate key)은 저장된 것으로 보는지 확인
+ * MySQL 대신 H2(MySQL mode)를 사용하고, writer 스레드가 끼어들지 않도록 flush-interval을 길게 잡는다.
+ * */
+class RefreshTokenWriteBehindTest {
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:write-behind;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS refresh_tokens");
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new RefreshTokenWriteBehind(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                meterRegistry, true, 60_000, 100, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.close();
+    }
+
+    @Test
+    void keepsTokenPendingWhenInsertFails() {
+        RefreshTokenWriteBehind.Row row = row(1);
+        assertThat(writeBehind.enqueue(row)).isTrue();
+
+        // 테이블이 없어서 INSERT 실패 : 토큰을 버리지 않고 다시 시도하라고 알린다
+        assertThatThrownBy(() -> writeBehind.awaitPersisted(row.tokenHash()))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(pendingCount()).isEqualTo(1);
+
+        createTable();
+        writeBehind.awaitPersisted(row.tokenHash());
+
+        assertThat(storedCount(row)).isEqualTo(1);
+        assertThat(pendingCount()).isZero();
+    }
+
+    @Test
+    void treatsAlreadyStoredTokenAsPersisted() {
+        createTable();
+        RefreshTokenWriteBehind.Row row = row(2);
+        jdbcTemplate.update("INSERT INTO refresh_tokens (token_hash, family_id, user_id, created_at, expires_at, is_revoked) " +
+                        "VALUES (?, ?, ?, ?, ?, FALSE)",
+                row.tokenHash(), row.familyId(), row.userId(),
+                Timestamp.valueOf(row.createdAt()), Timestamp.valueOf(row.expiresAt()));
+        writeBehind.enqueue(row);
+
+        writeBehind.awaitPersisted(row.tokenHash());
+
+        assertThat(storedCount(row)).isEqualTo(1);
+        assertThat(pendingCount()).isZero();
+    }
+
+    private void createTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE refresh_tokens (
+                    id            BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    token_hash    BINARY(32)   NOT NULL,
+                    family_id     BINARY(16)   NOT NULL,
+                    user_id       BIGINT       NOT NULL,
+                    created_at    DATETIME(6)  NOT NULL,
+                    expires_at    DATETIME(6)  NOT NULL,
+                    is_revoked    BOOLEAN      NOT NULL,
+                    last_used_at  DATETIME(6)  NULL,
+                    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash)
+                )""");
+    }
+
+    private int storedCount(RefreshTokenWriteBehind.Row row) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE token_hash = ?", Integer.class, (Object) row.tokenHash());
+        return count == null ? 0 : count;
+    }
+
+    private double pendingCount() {
+        return meterRegistry.get("auth.refresh-token.write-behind.pending").gauge().value();
+    }
+
+    private static RefreshTokenWriteBehind.Row row(int seed) {
+        byte[] tokenHash = new byte[32];
+        Arrays.fill(tokenHash, (byte) seed);
+        byte[] familyId = new byte[16];
+        Arrays.fill(familyId, (byte) seed);
+        LocalDateTime now = LocalDateTime.now();
+        return new RefreshTokenWriteBehind.Row(tokenHash, familyId, 1L, now, now.plusDays(7));
+    }
+}